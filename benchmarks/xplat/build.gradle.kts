@@ -0,0 +1,29 @@
+plugins {
+    id("com.kneelawk.submodule")
+    id("com.kneelawk.versioning")
+}
+
+submodule {
+    setRefmaps("common-events-benchmarks")
+    applyFabricLoaderDependency()
+    forceRemap()
+    xplatProjectDependency(":")
+}
+
+dependencies {
+    val jmh_version: String by project
+    implementation("org.openjdk.jmh:jmh-core:$jmh_version")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmh_version")
+}
+
+// run with `./gradlew :benchmarks-xplat:jmh`, passing JMH options with `--args`, like `--args="-prof gc"`
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the event invoker benchmarks."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args("-rf", "json", "-rff", layout.buildDirectory.file("jmh/results.json").get().asFile.path)
+    doFirst {
+        layout.buildDirectory.dir("jmh").get().asFile.mkdirs()
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.kneelawk.commonevents.api.Event;
+import com.kneelawk.commonevents.api.InvokerEngine;
+import com.kneelawk.commonevents.api.Reducer;
+
+/**
+ * Compares firing events, and rebuilding their invokers, between each {@link InvokerEngine}.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks-xplat:jmh}. Add {@code --args="-prof gc"} to also see how much each engine
+ * allocates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class InvokerBenchmark {
+    public interface SimpleCallback {
+        void onEvent(Blackhole blackhole, int value);
+    }
+
+    public interface ReducingCallback {
+        int onEvent(int value);
+    }
+
+    // events ignore listeners that are already registered, so every listener captures its own index. There are still
+    // only a few distinct listener classes, like in a real game where several mods listen to the same event
+    private static SimpleCallback simpleListener(int index) {
+        return switch (index % 4) {
+            case 0 -> (blackhole, value) -> blackhole.consume(value + index);
+            case 1 -> (blackhole, value) -> blackhole.consume(value * index);
+            case 2 -> (blackhole, value) -> blackhole.consume(value ^ index);
+            default -> (blackhole, value) -> blackhole.consume(value - index);
+        };
+    }
+
+    private static ReducingCallback reducingListener(int index) {
+        return switch (index % 4) {
+            case 0 -> value -> value + index;
+            case 1 -> value -> value * index;
+            case 2 -> value -> value ^ index;
+            default -> value -> value - index;
+        };
+    }
+
+    @Param({"LOOP", "SPECIALIZED", "TIERED", "METHOD_HANDLES"})
+    public InvokerEngine engine;
+
+    @Param({"1", "4", "16"})
+    public int listeners;
+
+    private Event<SimpleCallback> simpleEvent;
+    private Event<ReducingCallback> reducingEvent;
+    private int value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // benchmarks run outside a mod loader, so there is nothing to scan
+        simpleEvent = Event.builderSimple(SimpleCallback.class).scanned(false).invokerEngine(engine)
+            .tieredThreshold(1000).build();
+        reducingEvent = Event.builderReducing(ReducingCallback.class, Reducer.SUM_INT).scanned(false)
+            .invokerEngine(engine).tieredThreshold(1000).build();
+
+        for (int i = 0; i < listeners; i++) {
+            simpleEvent.register(simpleListener(i));
+            reducingEvent.register(reducingListener(i));
+        }
+    }
+
+    @Benchmark
+    public void fireSimple(Blackhole blackhole) {
+        simpleEvent.invoker().onEvent(blackhole, value++);
+    }
+
+    @Benchmark
+    public int fireReducing() {
+        return reducingEvent.invoker().onEvent(value++);
+    }
+
+    /**
+     * Creates an event, registers its listeners one by one and fires it once, to measure how long building invokers
+     * takes.
+     */
+    @Benchmark
+    @Warmup(iterations = 3, batchSize = 1000)
+    @Measurement(iterations = 5, batchSize = 1000)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void rebuild(Blackhole blackhole) {
+        Event<SimpleCallback> event =
+            Event.builderSimple(SimpleCallback.class).scanned(false).invokerEngine(engine).build();
+        for (int i = 0; i < listeners; i++) {
+            event.register(simpleListener(i));
+        }
+        event.invoker().onEvent(blackhole, value++);
+    }
+}
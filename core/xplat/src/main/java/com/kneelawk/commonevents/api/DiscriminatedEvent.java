@@ -0,0 +1,724 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArraySet;
+
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * An event whose callbacks can listen for specific values of a discriminator, like a block, item, or entity type,
+ * that is taken from the callback's arguments.
+ * <p>
+ * Each discriminator value with callbacks of its own gets its own {@link Event}, holding both the callbacks for that
+ * value and the callbacks registered for every value. Firing the event looks up the invoker for the discriminator
+ * value and only calls the callbacks that care about that value, instead of calling every callback and having each one
+ * check the value for itself.
+ * <p>
+ * The {@link Dispatcher} given when creating the event takes the discriminator from the callback's arguments and
+ * forwards them to the invoker for that value:
+ * <pre>{@code
+ * public static final DiscriminatedEvent<BlockBroken, Block> BLOCK_BROKEN =
+ *     DiscriminatedEvent.create(Event.builderSimple(BlockBroken.class),
+ *         invokers -> (level, pos, state) -> invokers.apply(state.getBlock()).onBroken(level, pos, state));
+ *
+ * public static void registerMyListener() {
+ *     BLOCK_BROKEN.registerFor(MY_BLOCK, (level, pos, state) -> {
+ *         // only called when MY_BLOCK is broken
+ *     });
+ * }
+ * }</pre>
+ * <p>
+ * Discriminated events manage their own callbacks, so they are not scanned for {@link Listen} annotated listeners and
+ * cannot be added to {@link EventBus event buses}.
+ *
+ * @param <T> the type of callback this event calls.
+ * @param <D> the type of the discriminator values.
+ */
+public final class DiscriminatedEvent<T, D> {
+    private final Event.Builder<T> builder;
+    private final boolean identity;
+    private final Event<T> global;
+    private final T invoker;
+
+    /**
+     * The events of every discriminator value that has callbacks of its own.
+     * <p>
+     * Maps are never modified once published. Adding or removing a value publishes a modified copy instead, so that
+     * invokers can be looked up from any thread without locking.
+     */
+    private volatile Map<D, Event<T>> events;
+
+    /**
+     * The callbacks registered for every discriminator value, in registration order, so that they can be registered to
+     * the events of new discriminator values.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private final List<GlobalCallback<T>> globalCallbacks = new ArrayList<>();
+
+    /**
+     * The keys of the callbacks registered for every discriminator value.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private final Set<Object> globalKeys = new ObjectOpenHashSet<>();
+
+    /**
+     * All phase orderings added to this event, so that they can be added to the events of new discriminator values.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private final List<ResourceLocation[]> orderings = new ArrayList<>();
+
+    /**
+     * The events of discriminator values each callback key has been registered to.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private final Map<Object, Set<Event<T>>> eventsByKey = new Object2ObjectOpenHashMap<>();
+
+    /**
+     * The discriminator value of each value's event, along with the keys of the callbacks registered for only that
+     * value, so that the event can be dropped once it has none left.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private final Map<Event<T>, ValueKeys<D>> valueKeys = new Reference2ObjectOpenHashMap<>();
+
+    private record GlobalCallback<T>(ResourceLocation phase, Object key, T callback) {}
+
+    private record ValueCallback<T, D>(D value, ResourceLocation phase, Object key, T callback) {}
+
+    private record ValueKeys<D>(D value, Set<Object> keys) {}
+
+    private DiscriminatedEvent(Event.Builder<T> builder, Dispatcher<T, D> dispatcher, boolean identity) {
+        this.builder = builder.scanned(false);
+        this.identity = identity;
+        this.global = builder.build();
+        this.events = newMap(0);
+        this.invoker = Objects.requireNonNull(dispatcher.createInvoker(this::invoker),
+            "Tried to create a discriminated event with a dispatcher that returned a null invoker");
+    }
+
+    /**
+     * Creates a new discriminated event that compares discriminator values with {@link Object#equals(Object)}.
+     * <p>
+     * The given builder is used to build the event of each discriminator value, so its implementation, phases, and
+     * other options apply to each of them. The builder is set to not be scanned and should not be used for anything
+     * else afterward.
+     *
+     * @param builder    the builder of the events for each discriminator value.
+     * @param dispatcher creates the invoker that looks up the invoker for the discriminator value in its arguments.
+     * @param <T>        the type of callback.
+     * @param <D>        the type of the discriminator values.
+     * @return a new discriminated event.
+     */
+    public static <T, D> DiscriminatedEvent<T, D> create(Event.Builder<T> builder, Dispatcher<T, D> dispatcher) {
+        return new DiscriminatedEvent<>(builder, dispatcher, false);
+    }
+
+    /**
+     * Creates a new discriminated event that compares discriminator values by identity.
+     * <p>
+     * This is slightly faster than {@link #create(Event.Builder, Dispatcher)} and should be used for discriminators
+     * that are singletons, like registry entries.
+     *
+     * @param builder    the builder of the events for each discriminator value.
+     * @param dispatcher creates the invoker that looks up the invoker for the discriminator value in its arguments.
+     * @param <T>        the type of callback.
+     * @param <D>        the type of the discriminator values.
+     * @return a new discriminated event.
+     * @see #create(Event.Builder, Dispatcher)
+     */
+    public static <T, D> DiscriminatedEvent<T, D> createIdentity(Event.Builder<T> builder,
+                                                                 Dispatcher<T, D> dispatcher) {
+        return new DiscriminatedEvent<>(builder, dispatcher, true);
+    }
+
+    /**
+     * Creates the invoker of a discriminated event.
+     *
+     * @param <T> the type of callback.
+     * @param <D> the type of the discriminator values.
+     */
+    @FunctionalInterface
+    public interface Dispatcher<T, D> {
+        /**
+         * Creates an invoker that takes the discriminator value from its arguments and calls the invoker for that value
+         * with them.
+         * <p>
+         * This is only called once, when the event is created.
+         *
+         * @param invokers looks up the current invoker for a discriminator value. This never returns {@code null}.
+         * @return the invoker of the discriminated event.
+         */
+        T createInvoker(Function<? super D, ? extends T> invokers);
+    }
+
+    /**
+     * {@return the type of callback this event calls}
+     */
+    public Class<? super T> getType() {
+        return global.getType();
+    }
+
+    /**
+     * Returns the invoker that looks up and calls the invoker of the discriminator value in its arguments.
+     * <p>
+     * Unlike {@link Event#invoker()}, this invoker never changes, so it can be stored.
+     *
+     * @return the dispatching invoker.
+     */
+    public T invoker() {
+        return invoker;
+    }
+
+    /**
+     * Returns the invoker that calls the callbacks for the given discriminator value and the callbacks registered for
+     * every value.
+     * <p>
+     * Use this instead of {@link #invoker()} when the discriminator value is already known.
+     *
+     * @param value the discriminator value.
+     * @return the invoker for the given discriminator value.
+     */
+    public T invoker(D value) {
+        Event<T> event = events.get(value);
+        return event != null ? event.invoker() : global.invoker();
+    }
+
+    /**
+     * Checks whether any callbacks would be called for the given discriminator value.
+     *
+     * @param value the discriminator value.
+     * @return whether the given discriminator value has any callbacks.
+     * @see Event#hasListeners()
+     */
+    public boolean hasListeners(D value) {
+        Event<T> event = events.get(value);
+        return event != null ? event.hasListeners() : global.hasListeners();
+    }
+
+    /**
+     * Registers a callback for every discriminator value.
+     * <p>
+     * This uses the callback object as its own key.
+     *
+     * @param callback the callback.
+     * @see Event#register(Object)
+     */
+    public void register(T callback) {
+        registerKeyed(Event.DEFAULT_PHASE, callback, callback);
+    }
+
+    /**
+     * Registers a callback for every discriminator value, in a specific phase.
+     * <p>
+     * This uses the callback object as its own key.
+     *
+     * @param phase    the phase name.
+     * @param callback the callback.
+     * @see Event#register(ResourceLocation, Object)
+     */
+    public void register(ResourceLocation phase, T callback) {
+        registerKeyed(phase, callback, callback);
+    }
+
+    /**
+     * Registers a keyed callback for every discriminator value.
+     *
+     * @param key      the callback's key.
+     * @param callback the callback.
+     * @see Event#registerKeyed(Object, Object)
+     */
+    public void registerKeyed(Object key, T callback) {
+        registerKeyed(Event.DEFAULT_PHASE, key, callback);
+    }
+
+    /**
+     * Registers a keyed callback for every discriminator value, in a specific phase.
+     * <p>
+     * Only one callback can be registered for a given key, both for every value and for each specific value.
+     * <p>
+     * This rebuilds the invoker of every discriminator value with callbacks of its own. Use {@link #batch()} when
+     * registering many callbacks at once.
+     *
+     * @param phase    the phase name.
+     * @param key      the callback's key.
+     * @param callback the callback.
+     * @see Event#registerKeyed(ResourceLocation, Object, Object)
+     */
+    public void registerKeyed(ResourceLocation phase, Object key, T callback) {
+        batch().registerKeyed(phase, key, callback).commit();
+    }
+
+    /**
+     * Registers a callback for a specific discriminator value.
+     * <p>
+     * This uses the callback object as its own key.
+     *
+     * @param value    the discriminator value the callback is for.
+     * @param callback the callback.
+     */
+    public void registerFor(D value, T callback) {
+        registerKeyedFor(value, Event.DEFAULT_PHASE, callback, callback);
+    }
+
+    /**
+     * Registers a callback for a specific discriminator value, in a specific phase.
+     * <p>
+     * This uses the callback object as its own key.
+     *
+     * @param value    the discriminator value the callback is for.
+     * @param phase    the phase name.
+     * @param callback the callback.
+     */
+    public void registerFor(D value, ResourceLocation phase, T callback) {
+        registerKeyedFor(value, phase, callback, callback);
+    }
+
+    /**
+     * Registers a keyed callback for a specific discriminator value.
+     *
+     * @param value    the discriminator value the callback is for.
+     * @param key      the callback's key.
+     * @param callback the callback.
+     */
+    public void registerKeyedFor(D value, Object key, T callback) {
+        registerKeyedFor(value, Event.DEFAULT_PHASE, key, callback);
+    }
+
+    /**
+     * Registers a keyed callback for a specific discriminator value, in a specific phase.
+     * <p>
+     * The same key can be used to register callbacks for multiple discriminator values. Unregistering the key removes
+     * all of them.
+     *
+     * @param value    the discriminator value the callback is for.
+     * @param phase    the phase name.
+     * @param key      the callback's key.
+     * @param callback the callback.
+     */
+    public void registerKeyedFor(D value, ResourceLocation phase, Object key, T callback) {
+        batch().registerKeyedFor(value, phase, key, callback).commit();
+    }
+
+    /**
+     * Removes the callbacks associated with the given key, both for every discriminator value and for specific values.
+     * <p>
+     * Discriminator values left without any callbacks of their own go back to only calling the callbacks registered
+     * for every value.
+     *
+     * @param key the key of the callbacks to unregister.
+     */
+    public void unregister(Object key) {
+        Objects.requireNonNull(key, "Tried to unregister a callback with a null key!");
+
+        synchronized (this) {
+            Map<D, Event<T>> events = this.events;
+
+            if (globalKeys.remove(key)) {
+                globalCallbacks.removeIf(callback -> callback.key().equals(key));
+                global.unregister(key);
+                for (Event<T> event : events.values()) {
+                    event.unregister(key);
+                }
+            }
+
+            Set<Event<T>> keyEvents = eventsByKey.remove(key);
+            if (keyEvents == null) return;
+
+            Map<D, Event<T>> newEvents = null;
+            for (Event<T> event : keyEvents) {
+                ValueKeys<D> keys = valueKeys.get(event);
+                keys.keys().remove(key);
+                if (keys.keys().isEmpty()) {
+                    // the value is left with only the callbacks for every value, which the global event already has
+                    valueKeys.remove(event);
+                    if (newEvents == null) newEvents = copyEvents(events, 0);
+                    newEvents.remove(keys.value());
+                } else {
+                    event.unregister(key);
+                }
+            }
+            if (newEvents != null) this.events = newEvents;
+        }
+    }
+
+    /**
+     * Request that listeners registered for one phase be executed before listeners registered for another phase, for
+     * every discriminator value.
+     *
+     * @param firstPhase  the name of the phase that should run before the other.
+     * @param secondPhase the name of the phase that should run after the other.
+     * @see Event#addPhaseOrdering(ResourceLocation, ResourceLocation)
+     */
+    public void addPhaseOrdering(ResourceLocation firstPhase, ResourceLocation secondPhase) {
+        batch().addPhaseOrdering(firstPhase, secondPhase).commit();
+    }
+
+    /**
+     * Creates a new batch for registering many callbacks and phase orderings at once.
+     * <p>
+     * Nothing is applied until {@link Batch#commit()} is called. At that point, the event of each affected
+     * discriminator value has all of its changes applied together and only rebuilds its invoker once, no matter how
+     * many callbacks for every value were staged.
+     *
+     * @return a new registration batch for this event.
+     */
+    public Batch<T, D> batch() {
+        return new Batch<>(this);
+    }
+
+    /**
+     * Rebuilds the invokers of every discriminator value that have changes waiting to be applied.
+     *
+     * @see Event#flush()
+     */
+    public void flush() {
+        global.flush();
+        for (Event<T> event : events.values()) {
+            event.flush();
+        }
+    }
+
+    private void commit(List<ResourceLocation[]> newOrderings, List<GlobalCallback<T>> newGlobals,
+                        List<ValueCallback<T, D>> newValueCallbacks) {
+        synchronized (this) {
+            Map<D, Event<T>> events = this.events;
+            Map<Event<T>, Event.Batch<T>> batches = new LinkedHashMap<>();
+
+            // work out every change before touching any event or bookkeeping, so that a new value only gets an event
+            // once it is known to have a callback of its own
+            Set<Object> addedGlobalKeys = new ObjectOpenHashSet<>();
+            List<GlobalCallback<T>> addedGlobals = new ArrayList<>();
+            for (GlobalCallback<T> callback : newGlobals) {
+                if (globalKeys.contains(callback.key()) || !addedGlobalKeys.add(callback.key())) continue;
+                addedGlobals.add(callback);
+            }
+
+            stageGlobal(batchOf(batches, global), newOrderings, addedGlobals);
+            for (Event<T> event : events.values()) {
+                stageGlobal(batchOf(batches, event), newOrderings, addedGlobals);
+            }
+
+            Map<D, Event<T>> addedEvents = newMap(0);
+            Map<Event<T>, Set<Object>> addedValueKeys = new Reference2ObjectOpenHashMap<>();
+            for (ValueCallback<T, D> callback : newValueCallbacks) {
+                Object key = callback.key();
+                if (globalKeys.contains(key) || addedGlobalKeys.contains(key)) continue;
+
+                Event<T> event = events.get(callback.value());
+                if (event == null) event = addedEvents.get(callback.value());
+
+                if (event == null) {
+                    event = builder.build();
+
+                    // bring the new event up to date with the callbacks and orderings for every value
+                    Event.Batch<T> batch = batchOf(batches, event);
+                    stageGlobal(batch, orderings, globalCallbacks);
+                    stageGlobal(batch, newOrderings, addedGlobals);
+
+                    addedEvents.put(callback.value(), event);
+                } else {
+                    ValueKeys<D> keys = valueKeys.get(event);
+                    if (keys != null && keys.keys().contains(key)) continue;
+                }
+
+                if (!addedValueKeys.computeIfAbsent(event, e -> new ObjectOpenHashSet<>()).add(key)) continue;
+                batchOf(batches, event).registerKeyed(callback.phase(), key, callback.callback());
+            }
+
+            try {
+                for (Event.Batch<T> batch : batches.values()) {
+                    batch.commit();
+                }
+            } catch (RuntimeException e) {
+                rollBack(batches.keySet(), newOrderings, addedGlobalKeys, addedValueKeys);
+                throw e;
+            }
+
+            // every event has its callbacks, so the bookkeeping and new values can be published
+            orderings.addAll(newOrderings);
+            globalKeys.addAll(addedGlobalKeys);
+            globalCallbacks.addAll(addedGlobals);
+
+            for (var entry : addedEvents.entrySet()) {
+                valueKeys.put(entry.getValue(), new ValueKeys<>(entry.getKey(), new ObjectOpenHashSet<>()));
+            }
+            for (var entry : addedValueKeys.entrySet()) {
+                Event<T> event = entry.getKey();
+                valueKeys.get(event).keys().addAll(entry.getValue());
+                for (Object key : entry.getValue()) {
+                    eventsByKey.computeIfAbsent(key, k -> new ReferenceArraySet<>()).add(event);
+                }
+            }
+
+            if (!addedEvents.isEmpty()) {
+                Map<D, Event<T>> newEvents = copyEvents(events, addedEvents.size());
+                newEvents.putAll(addedEvents);
+                this.events = newEvents;
+            }
+        }
+    }
+
+    /**
+     * Removes the callbacks a failed commit added to the events that already existed.
+     * <p>
+     * Phase orderings cannot be removed, so they are applied to every existing event instead, to keep them all
+     * consistent.
+     */
+    private void rollBack(Set<Event<T>> changed, List<ResourceLocation[]> newOrderings, Set<Object> addedGlobalKeys,
+                          Map<Event<T>, Set<Object>> addedValueKeys) {
+        for (Event<T> event : changed) {
+            ValueKeys<D> keys = valueKeys.get(event);
+            // new events were never published
+            if (keys == null && event != global) continue;
+
+            Event.Batch<T> undo = event.batch();
+            for (Object key : addedGlobalKeys) {
+                // a value can already have a callback of its own with the new global key
+                if (keys == null || !keys.keys().contains(key)) undo.unregister(key);
+            }
+            for (Object key : addedValueKeys.getOrDefault(event, Set.of())) {
+                undo.unregister(key);
+            }
+            for (ResourceLocation[] ordering : newOrderings) {
+                undo.addPhaseOrdering(ordering[0], ordering[1]);
+            }
+            undo.commit();
+        }
+
+        orderings.addAll(newOrderings);
+    }
+
+    private static <T> void stageGlobal(Event.Batch<T> batch, List<ResourceLocation[]> orderings,
+                                        List<GlobalCallback<T>> callbacks) {
+        for (ResourceLocation[] ordering : orderings) {
+            batch.addPhaseOrdering(ordering[0], ordering[1]);
+        }
+        for (GlobalCallback<T> callback : callbacks) {
+            batch.registerKeyed(callback.phase(), callback.key(), callback.callback());
+        }
+    }
+
+    private static <T> Event.Batch<T> batchOf(Map<Event<T>, Event.Batch<T>> batches, Event<T> event) {
+        return batches.computeIfAbsent(event, Event::batch);
+    }
+
+    private Map<D, Event<T>> copyEvents(Map<D, Event<T>> events, int extra) {
+        Map<D, Event<T>> newEvents = newMap(events.size() + extra);
+        newEvents.putAll(events);
+        return newEvents;
+    }
+
+    private Map<D, Event<T>> newMap(int expected) {
+        return identity ? new Reference2ObjectOpenHashMap<>(expected) : new Object2ObjectOpenHashMap<>(expected);
+    }
+
+    /**
+     * A set of callback registrations and phase orderings that are applied to a discriminated event all at once.
+     * <p>
+     * Use {@link DiscriminatedEvent#batch()} to create new batches. Batches are not thread-safe, but committing a batch
+     * is.
+     *
+     * @param <T> the type of callback this batch registers.
+     * @param <D> the type of the discriminator values.
+     */
+    public static final class Batch<T, D> {
+        private final DiscriminatedEvent<T, D> event;
+        private final List<ResourceLocation[]> orderings = new ArrayList<>();
+        private final List<GlobalCallback<T>> globalCallbacks = new ArrayList<>();
+        private final List<ValueCallback<T, D>> valueCallbacks = new ArrayList<>();
+
+        private Batch(DiscriminatedEvent<T, D> event) {
+            this.event = event;
+        }
+
+        /**
+         * Stages a callback for every discriminator value.
+         * <p>
+         * This uses the callback object as its own key.
+         *
+         * @param callback the callback.
+         * @return this batch.
+         * @see DiscriminatedEvent#register(Object)
+         */
+        public Batch<T, D> register(T callback) {
+            return registerKeyed(Event.DEFAULT_PHASE, callback, callback);
+        }
+
+        /**
+         * Stages a callback for every discriminator value, in a specific phase.
+         * <p>
+         * This uses the callback object as its own key.
+         *
+         * @param phase    the phase name.
+         * @param callback the callback.
+         * @return this batch.
+         * @see DiscriminatedEvent#register(ResourceLocation, Object)
+         */
+        public Batch<T, D> register(ResourceLocation phase, T callback) {
+            return registerKeyed(phase, callback, callback);
+        }
+
+        /**
+         * Stages a keyed callback for every discriminator value.
+         *
+         * @param key      the callback's key.
+         * @param callback the callback.
+         * @return this batch.
+         * @see DiscriminatedEvent#registerKeyed(Object, Object)
+         */
+        public Batch<T, D> registerKeyed(Object key, T callback) {
+            return registerKeyed(Event.DEFAULT_PHASE, key, callback);
+        }
+
+        /**
+         * Stages a keyed callback for every discriminator value, in a specific phase.
+         *
+         * @param phase    the phase name.
+         * @param key      the callback's key.
+         * @param callback the callback.
+         * @return this batch.
+         * @see DiscriminatedEvent#registerKeyed(ResourceLocation, Object, Object)
+         */
+        public Batch<T, D> registerKeyed(ResourceLocation phase, Object key, T callback) {
+            Objects.requireNonNull(phase, "Tried to register a callback for a null phase!");
+            Objects.requireNonNull(callback, "Tried to register a null callback!");
+            Objects.requireNonNull(key, "Tried to register a callback with a null key!");
+
+            globalCallbacks.add(new GlobalCallback<>(phase, key, callback));
+            return this;
+        }
+
+        /**
+         * Stages a callback for a specific discriminator value.
+         * <p>
+         * This uses the callback object as its own key.
+         *
+         * @param value    the discriminator value the callback is for.
+         * @param callback the callback.
+         * @return this batch.
+         * @see DiscriminatedEvent#registerFor(Object, Object)
+         */
+        public Batch<T, D> registerFor(D value, T callback) {
+            return registerKeyedFor(value, Event.DEFAULT_PHASE, callback, callback);
+        }
+
+        /**
+         * Stages a callback for a specific discriminator value, in a specific phase.
+         * <p>
+         * This uses the callback object as its own key.
+         *
+         * @param value    the discriminator value the callback is for.
+         * @param phase    the phase name.
+         * @param callback the callback.
+         * @return this batch.
+         * @see DiscriminatedEvent#registerFor(Object, ResourceLocation, Object)
+         */
+        public Batch<T, D> registerFor(D value, ResourceLocation phase, T callback) {
+            return registerKeyedFor(value, phase, callback, callback);
+        }
+
+        /**
+         * Stages a keyed callback for a specific discriminator value.
+         *
+         * @param value    the discriminator value the callback is for.
+         * @param key      the callback's key.
+         * @param callback the callback.
+         * @return this batch.
+         * @see DiscriminatedEvent#registerKeyedFor(Object, Object, Object)
+         */
+        public Batch<T, D> registerKeyedFor(D value, Object key, T callback) {
+            return registerKeyedFor(value, Event.DEFAULT_PHASE, key, callback);
+        }
+
+        /**
+         * Stages a keyed callback for a specific discriminator value, in a specific phase.
+         *
+         * @param value    the discriminator value the callback is for.
+         * @param phase    the phase name.
+         * @param key      the callback's key.
+         * @param callback the callback.
+         * @return this batch.
+         * @see DiscriminatedEvent#registerKeyedFor(Object, ResourceLocation, Object, Object)
+         */
+        public Batch<T, D> registerKeyedFor(D value, ResourceLocation phase, Object key, T callback) {
+            Objects.requireNonNull(value, "Tried to register a callback for a null discriminator value!");
+            Objects.requireNonNull(phase, "Tried to register a callback for a null phase!");
+            Objects.requireNonNull(callback, "Tried to register a null callback!");
+            Objects.requireNonNull(key, "Tried to register a callback with a null key!");
+
+            valueCallbacks.add(new ValueCallback<>(value, phase, key, callback));
+            return this;
+        }
+
+        /**
+         * Stages a phase ordering for every discriminator value.
+         *
+         * @param firstPhase  the name of the phase that should run before the other.
+         * @param secondPhase the name of the phase that should run after the other.
+         * @return this batch.
+         * @see DiscriminatedEvent#addPhaseOrdering(ResourceLocation, ResourceLocation)
+         */
+        public Batch<T, D> addPhaseOrdering(ResourceLocation firstPhase, ResourceLocation secondPhase) {
+            Objects.requireNonNull(firstPhase, "Tried to add an ordering for a null phase.");
+            Objects.requireNonNull(secondPhase, "Tried to add an ordering for a null phase.");
+
+            if (firstPhase.equals(secondPhase)) {
+                throw new IllegalArgumentException("Tried to add a phase that depends on itself.");
+            }
+
+            orderings.add(new ResourceLocation[]{firstPhase, secondPhase});
+            return this;
+        }
+
+        /**
+         * Applies all staged phase orderings and callbacks, rebuilding the invoker of each affected discriminator value
+         * once.
+         * <p>
+         * If the event of a discriminator value rejects one of the staged callbacks, none of them are registered, but
+         * the staged phase orderings still are. This batch is cleared afterward and can be reused.
+         */
+        public void commit() {
+            if (orderings.isEmpty() && globalCallbacks.isEmpty() && valueCallbacks.isEmpty()) return;
+
+            event.commit(orderings, globalCallbacks, valueCallbacks);
+            orderings.clear();
+            globalCallbacks.clear();
+            valueCallbacks.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DiscriminatedEvent{type=" + global.getType() + ", values=" + events.size() + "}";
+    }
+}
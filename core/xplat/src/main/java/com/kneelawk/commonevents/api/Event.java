@@ -17,6 +17,10 @@
 
 package com.kneelawk.commonevents.api;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -25,9 +29,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
@@ -36,10 +40,13 @@ import net.minecraft.resources.ResourceLocation;
 
 import com.kneelawk.commonevents.api.phase.PhaseData;
 import com.kneelawk.commonevents.api.phase.PhaseSorting;
+import com.kneelawk.commonevents.api.phase.PhaseTemplate;
 import com.kneelawk.commonevents.impl.CEConstants;
 import com.kneelawk.commonevents.impl.CommonEventsImpl;
 import com.kneelawk.commonevents.impl.event.EventPhaseDataHolder;
+import com.kneelawk.commonevents.impl.event.ListenerStorage;
 import com.kneelawk.commonevents.impl.gen.ImplementationGenerator;
+import com.kneelawk.commonevents.impl.gen.TieredImplementation;
 import com.kneelawk.commonevents.impl.scan.ScanManager;
 
 /**
@@ -58,6 +65,8 @@ import com.kneelawk.commonevents.impl.scan.ScanManager;
  * of implementing an invoker and only allows callback implementations to be done by implementing an interface onto a
  * class or extending a class. This will also prevent the callback from being fired in scanned classes.
  * <p>
+ * The array of callbacks given to an implementation function is shared with the event and must not be modified.
+ * <p>
  * You are strongly encouraged to use a {@code T} type which is unique for each event, because this type's class is the
  * key that allows listeners to register using annotations. Using the same type for multiple events will cause all events
  * created with that type to call the same annotation-based callbacks.
@@ -153,6 +162,17 @@ public final class Event<T> {
      */
     public static final String DEFAULT_QUALIFIER = CEConstants.DEFAULT_QUALIFIER;
 
+    private static final MethodHandle REBUILD_IF_DIRTY;
+
+    static {
+        try {
+            REBUILD_IF_DIRTY = MethodHandles.lookup()
+                .findVirtual(Event.class, "rebuildIfDirty", MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     /**
      * Creates a new instance {@link Event} with a type and qualifier.
      * <p>
@@ -167,7 +187,7 @@ public final class Event<T> {
      */
     public static <T> Event<T> create(Class<? super T> type, String qualifier,
                                       Function<T[], T> implementation) {
-        return new Event<>(type, qualifier, implementation, true, false);
+        return new Event<>(type, qualifier, implementation, false, true, ListenerStorage.UNSORTED, false, null);
     }
 
     /**
@@ -202,8 +222,6 @@ public final class Event<T> {
         return create(type, callbacks -> switch (callbacks.length) {
             case 0 -> emptyImplementation;
             case 1 -> callbacks[0];
-            // We can ensure the implementation may not remove elements from the backing array since the array given to
-            // this method is a copy of the backing array.
             default -> implementation.apply(callbacks);
         });
     }
@@ -235,13 +253,31 @@ public final class Event<T> {
         CommonEventsImpl.ensureNoDuplicates(defaultPhases,
             id -> new IllegalArgumentException("Duplicate event phase: " + id));
 
-        var event = create(type, implementation);
+        return createWithPhases(type, implementation, PhaseTemplate.of(defaultPhases));
+    }
 
-        for (int i = 1; i < defaultPhases.length; ++i) {
-            event.addPhaseOrdering(defaultPhases[i - 1], defaultPhases[i]);
+    /**
+     * Create a new instance of {@link Event} with a template of default phases that get invoked in order.
+     * <p>
+     * Events created with the same template share its phase order, instead of each building and sorting their own.
+     * Otherwise, this behaves the same as {@link #createWithPhases(Class, Function, ResourceLocation...)}.
+     *
+     * @param type           the class representing the type of the invoker that is executed by the event
+     * @param implementation a function which generates an invoker implementation using an array of callbacks
+     * @param phaseTemplate  the default phases of this event. Must contain {@link Event#DEFAULT_PHASE}
+     * @param <T>            the type of the invoker executed by the event
+     * @return a new event instance
+     */
+    public static <T> Event<T> createWithPhases(Class<? super T> type,
+                                                Function<T[], T> implementation,
+                                                PhaseTemplate phaseTemplate) {
+        Objects.requireNonNull(phaseTemplate, "Tried to create an event with a null phase template.");
+        if (phaseTemplate.indexOf(DEFAULT_PHASE) < 0) {
+            throw new IllegalArgumentException("The event phases must contain Event.DEFAULT_PHASE.");
         }
 
-        return event;
+        return new Event<>(type, DEFAULT_QUALIFIER, implementation, false, true, ListenerStorage.UNSORTED, false,
+            phaseTemplate);
     }
 
     /**
@@ -258,20 +294,79 @@ public final class Event<T> {
      */
     public static <T> Event<T> createUnscanned(Class<? super T> type,
                                                Function<T[], T> implementation) {
-        return new Event<>(type, DEFAULT_QUALIFIER, implementation, false, false);
+        return new Event<>(type, DEFAULT_QUALIFIER, implementation, false, false, ListenerStorage.UNSORTED, false,
+            null);
     }
 
     /**
      * Creates a simple event that calls all registered listeners with the given arguments.
      * <p>
      * This requires that the callback interface be a functional interface with a method that returns {@code void}.
+     * <p>
+     * The invoker of an event with no listeners is a shared no-op instance, and the invoker of an event with a single
+     * listener is that listener itself.
      *
      * @param type the callback interface type.
      * @param <T>  the callback interface type.
      * @return the created event.
      */
     public static <T> Event<T> createSimple(Class<? super T> type) {
-        return new Event<>(type, DEFAULT_QUALIFIER, ImplementationGenerator.defineSimple(type), true, false);
+        return new Event<>(type, DEFAULT_QUALIFIER, ImplementationGenerator.defineSimple(type), true, true,
+            ListenerStorage.UNSORTED, false, null);
+    }
+
+    /**
+     * Creates a simple event that calls all registered listeners with the given arguments, using the given invoker
+     * engine.
+     * <p>
+     * This requires that the callback interface be a functional interface with a method that returns {@code void}.
+     *
+     * @param type   the callback interface type.
+     * @param engine how the generated implementation should call its listeners.
+     * @param <T>    the callback interface type.
+     * @return the created event.
+     */
+    public static <T> Event<T> createSimple(Class<? super T> type, InvokerEngine engine) {
+        Objects.requireNonNull(engine, "Tried to create an event with a null invoker engine.");
+        return new Event<>(type, DEFAULT_QUALIFIER, ImplementationGenerator.defineSimple(type, engine), true,
+            true, ListenerStorage.UNSORTED, false, null);
+    }
+
+    /**
+     * Creates an event that calls registered listeners with the given arguments until one of them decides the result.
+     * <p>
+     * This requires that the callback interface be a functional interface with a method that returns the kind of
+     * result the short-circuit expects.
+     *
+     * @param type         the callback interface type.
+     * @param shortCircuit how the listeners' results are combined.
+     * @param <T>          the callback interface type.
+     * @return the created event.
+     * @see ShortCircuit
+     */
+    public static <T> Event<T> createShortCircuit(Class<? super T> type, ShortCircuit shortCircuit) {
+        Objects.requireNonNull(shortCircuit, "Tried to create an event with a null short-circuit.");
+        return new Event<>(type, DEFAULT_QUALIFIER, ImplementationGenerator.defineShortCircuit(type, shortCircuit),
+            true, true, ListenerStorage.UNSORTED, false, null);
+    }
+
+    /**
+     * Creates an event that calls all registered listeners with the given arguments and combines their primitive
+     * results into a single result.
+     * <p>
+     * This requires that the callback interface be a functional interface with a method that returns the reducer's
+     * {@linkplain Reducer#getResultType() result type}.
+     *
+     * @param type    the callback interface type.
+     * @param reducer how the listeners' results are combined.
+     * @param <T>     the callback interface type.
+     * @return the created event.
+     * @see Reducer
+     */
+    public static <T> Event<T> createReducing(Class<? super T> type, Reducer reducer) {
+        Objects.requireNonNull(reducer, "Tried to create an event with a null reducer.");
+        return new Event<>(type, DEFAULT_QUALIFIER, ImplementationGenerator.defineReducing(type, reducer), true,
+            true, ListenerStorage.UNSORTED, false, null);
     }
 
     /**
@@ -283,7 +378,7 @@ public final class Event<T> {
      * @return the event builder.
      */
     public static <T> Builder<T> builder(Class<? super T> type, Function<T[], T> implementation) {
-        return new Builder<>(type, implementation);
+        return new Builder<>(type, implementation, null);
     }
 
     /**
@@ -296,7 +391,50 @@ public final class Event<T> {
      * @return the event builder.
      */
     public static <T> Builder<T> builderSimple(Class<? super T> type) {
-        return new Builder<>(type, ImplementationGenerator.defineSimple(type));
+        // check that the interface is simple before the event is built
+        ImplementationGenerator.checkSimple(type);
+        return new Builder<>(type, null, engine -> ImplementationGenerator.defineSimple(type, engine));
+    }
+
+    /**
+     * Creates an event builder that calls registered listeners with the given arguments until one of them decides the
+     * result.
+     * <p>
+     * This requires that the callback interface be a functional interface with a method that returns the kind of
+     * result the short-circuit expects.
+     *
+     * @param type         the callback interface type.
+     * @param shortCircuit how the listeners' results are combined.
+     * @param <T>          the callback interface type.
+     * @return the event builder.
+     * @see ShortCircuit
+     */
+    public static <T> Builder<T> builderShortCircuit(Class<? super T> type, ShortCircuit shortCircuit) {
+        Objects.requireNonNull(shortCircuit, "Tried to create an event builder with a null short-circuit.");
+        // check that the interface fits the short-circuit before the event is built
+        ImplementationGenerator.checkShortCircuit(type, shortCircuit);
+        return new Builder<>(type, null,
+            engine -> ImplementationGenerator.defineShortCircuit(type, shortCircuit, engine));
+    }
+
+    /**
+     * Creates an event builder that calls all registered listeners with the given arguments and combines their
+     * primitive results into a single result.
+     * <p>
+     * This requires that the callback interface be a functional interface with a method that returns the reducer's
+     * {@linkplain Reducer#getResultType() result type}.
+     *
+     * @param type    the callback interface type.
+     * @param reducer how the listeners' results are combined.
+     * @param <T>     the callback interface type.
+     * @return the event builder.
+     * @see Reducer
+     */
+    public static <T> Builder<T> builderReducing(Class<? super T> type, Reducer reducer) {
+        Objects.requireNonNull(reducer, "Tried to create an event builder with a null reducer.");
+        // check that the interface fits the reducer before the event is built
+        ImplementationGenerator.checkReducing(type, reducer);
+        return new Builder<>(type, null, engine -> ImplementationGenerator.defineReducing(type, reducer, engine));
     }
 
     /**
@@ -306,16 +444,23 @@ public final class Event<T> {
      */
     public static class Builder<T> {
         private final Class<? super T> type;
-        private final Function<T[], T> implementation;
+        private final @Nullable Function<T[], T> implementation;
+        private final @Nullable Function<InvokerEngine, Function<T[], T>> generator;
         private @Nullable T emptyImplementation;
         private String qualifier = DEFAULT_QUALIFIER;
         private boolean scanned = true;
         private ResourceLocation[] defaultPhases = new ResourceLocation[0];
         private boolean optimizeRemoval = false;
+        private boolean optimizeChurn = false;
+        private boolean lazyRebuild = false;
+        private InvokerEngine invokerEngine = InvokerEngine.LOOP;
+        private int tieredThreshold = 0;
 
-        private Builder(Class<? super T> type, Function<T[], T> implementation) {
+        private Builder(Class<? super T> type, @Nullable Function<T[], T> implementation,
+                        @Nullable Function<InvokerEngine, Function<T[], T>> generator) {
             this.type = type;
             this.implementation = implementation;
+            this.generator = generator;
         }
 
         /**
@@ -324,24 +469,41 @@ public final class Event<T> {
          * @return the built event.
          */
         public Event<T> build() {
+            Function<T[], T> implementation =
+                generator != null ? generator.apply(invokerEngine) : Objects.requireNonNull(this.implementation);
+
+            if (implementation instanceof TieredImplementation<T> tiered) {
+                // keep the tiered implementation visible to the event, so that it can promote its invokers
+                if (tieredThreshold > 0) tiered = tiered.withThreshold(tieredThreshold);
+                if (emptyImplementation != null) tiered = tiered.withEmptyImplementation(emptyImplementation);
+                implementation = tiered;
+            }
+
             Function<T[], T> impl;
-            if (emptyImplementation != null) {
+            if (emptyImplementation != null && !(implementation instanceof TieredImplementation<T>)) {
+                Function<T[], T> generic = implementation;
                 impl = callbacks -> switch (callbacks.length) {
                     case 0 -> emptyImplementation;
                     case 1 -> callbacks[0];
-                    default -> implementation.apply(callbacks);
+                    default -> generic.apply(callbacks);
                 };
             } else {
                 impl = implementation;
             }
 
-            Event<T> event = new Event<>(type, qualifier, impl, scanned, optimizeRemoval);
-
-            for (int i = 1; i < defaultPhases.length; ++i) {
-                event.addPhaseOrdering(defaultPhases[i - 1], defaultPhases[i]);
+            ListenerStorage storage;
+            if (optimizeChurn) {
+                storage = ListenerStorage.CHUNKED;
+            } else if (optimizeRemoval) {
+                storage = ListenerStorage.SORTED;
+            } else {
+                storage = ListenerStorage.UNSORTED;
             }
 
-            return event;
+            PhaseTemplate phaseTemplate = defaultPhases.length > 0 ? PhaseTemplate.of(defaultPhases) : null;
+
+            // only generated implementations are trusted with the event's own callback arrays
+            return new Event<>(type, qualifier, impl, generator != null, scanned, storage, lazyRebuild, phaseTemplate);
         }
 
         /**
@@ -364,6 +526,7 @@ public final class Event<T> {
          * @return this builder.
          */
         public Builder<T> qualifier(String qualifier) {
+            Objects.requireNonNull(qualifier, "Tried to set a null event qualifier.");
             this.qualifier = qualifier;
             return this;
         }
@@ -412,13 +575,72 @@ public final class Event<T> {
         }
 
         /**
-         * Sets whether the built event should be optimized for improved removal costs.
+         * Appends the phases of a phase template to this builder's default phases.
+         * <p>
+         * When a builder's default phases all come from a single template, the built event shares that template's phase
+         * order with every other event built from it.
+         *
+         * @param phaseTemplate the template whose phases to append.
+         * @return this builder.
+         * @see #defaultPhases(ResourceLocation...)
+         */
+        public Builder<T> phaseTemplate(PhaseTemplate phaseTemplate) {
+            Objects.requireNonNull(phaseTemplate, "Tried to use a null phase template.");
+            return this.defaultPhases(phaseTemplate.getPhases().toArray(ResourceLocation[]::new));
+        }
+
+        /**
+         * Sets how the built event's generated implementation calls its listeners.
+         * <p>
+         * This is only available for builders with generated implementations, like those created with
+         * {@link #builderSimple(Class)}, {@link #builderShortCircuit(Class, ShortCircuit)} or
+         * {@link #builderReducing(Class, Reducer)}. The default is {@link InvokerEngine#LOOP}.
+         *
+         * @param invokerEngine how the generated implementation should call its listeners.
+         * @return this builder.
+         */
+        public Builder<T> invokerEngine(InvokerEngine invokerEngine) {
+            Objects.requireNonNull(invokerEngine, "Tried to use a null invoker engine.");
+            if (generator == null) {
+                throw new IllegalStateException(
+                    "Tried to set the invoker engine of an event builder with a custom implementation.");
+            }
+
+            this.invokerEngine = invokerEngine;
+            return this;
+        }
+
+        /**
+         * Sets how many times the built event's invoker must be called before it gets specialized.
+         * <p>
+         * This only has an effect when the invoker engine is {@link InvokerEngine#TIERED}. By default, the
+         * {@code com.kneelawk.common_events.tiered_threshold} system property is used, or {@code 10000} if that is not
+         * set.
+         *
+         * @param tieredThreshold the number of calls after which the invoker gets specialized.
+         * @return this builder.
+         */
+        public Builder<T> tieredThreshold(int tieredThreshold) {
+            if (tieredThreshold < 1) {
+                throw new IllegalArgumentException("Tried to set a tiered threshold less than 1: " + tieredThreshold);
+            }
+
+            this.tieredThreshold = tieredThreshold;
+            return this;
+        }
+
+        /**
+         * Sets whether the built event should keep callbacks within each phase sorted by key.
+         * <p>
+         * When {@code optimizeRemoval} is {@code false}, callbacks within a phase are invoked in registration order, and
+         * both {@link #register(Object)} and {@link #unregister(Object)} find a callback's place in {@code O(1)} time.
+         * When {@code optimizeRemoval} is {@code true}, callbacks within a phase are ordered by their keys' hash codes
+         * and are found with a binary search in {@code O(log(n))} time. Either way, the event's invoker is rebuilt
+         * after every change.
          * <p>
-         * If the event is optimized for improved removal costs, then registration performance will be slightly worse.
-         * Specifically, when {@code optimizeRemoval} is {@code false}, then {@link #unregister(Object)} will have
-         * {@code O(n)} complexity but {@link #register(Object)} will have {@code O(1)} complexity. However, if
-         * {@code optimizeRemoval} is {@code true} then both {@link #unregister(Object)} and {@link #register(Object)}
-         * will have {@code O(log(n))} complexity.
+         * Sorted phases cannot hold two keys with the same hash code, and adding or removing a callback copies the
+         * phase's whole callback array. Events with very large numbers of changing listeners should use
+         * {@link #optimizeChurn(boolean)} instead.
          *
          * @param optimizeRemoval whether removals should have improved performance at the cost of registration performance.
          * @return this builder.
@@ -427,6 +649,42 @@ public final class Event<T> {
             this.optimizeRemoval = optimizeRemoval;
             return this;
         }
+
+        /**
+         * Sets whether the built event should be optimized for very large numbers of frequently added and removed
+         * callbacks.
+         * <p>
+         * If {@code optimizeChurn} is {@code true}, each phase stores its callbacks in growable chunks indexed by key, so
+         * {@link #register(Object)} and {@link #unregister(Object)} take amortized {@code O(1)} time without copying
+         * every other callback in the phase. Callbacks are still invoked in registration order. This takes precedence
+         * over {@link #optimizeRemoval(boolean)}.
+         * <p>
+         * This only makes changing the stored callbacks cheaper. Combine this with {@link #lazyRebuild(boolean)} to
+         * also avoid rebuilding the invoker after every change.
+         *
+         * @param optimizeChurn whether the event should be optimized for many frequently changing callbacks.
+         * @return this builder.
+         */
+        public Builder<T> optimizeChurn(boolean optimizeChurn) {
+            this.optimizeChurn = optimizeChurn;
+            return this;
+        }
+
+        /**
+         * Sets whether the built event should rebuild its invoker lazily.
+         * <p>
+         * Normally, every registration or phase ordering immediately rebuilds the event's invoker. If
+         * {@code lazyRebuild} is {@code true}, then changes only mark the event as out of date, and the invoker is
+         * rebuilt once, the next time {@link #invoker()} or {@link #flush()} is called. This is useful for events whose
+         * listeners change many times between each time the event is fired.
+         *
+         * @param lazyRebuild whether the invoker should only be rebuilt when it is next needed.
+         * @return this builder.
+         */
+        public Builder<T> lazyRebuild(boolean lazyRebuild) {
+            this.lazyRebuild = lazyRebuild;
+            return this;
+        }
     }
 
     /**
@@ -435,39 +693,109 @@ public final class Event<T> {
     private final Class<? super T> type;
     private final EventKey key;
     private final Function<T[], T> implementation;
-    private final boolean sortPhaseCallbacks;
-    private final Lock lock = new ReentrantLock();
+    /**
+     * Whether {@link #implementation} is one of Common Events' own generated implementations, which never modify or
+     * keep the callback arrays they are given.
+     * <p>
+     * Any other implementation is given a copy of the callbacks instead, as it could keep the array it is given or
+     * modify it.
+     */
+    private final boolean sharedCallbacks;
+    private final ListenerStorage storage;
+    private final boolean lazyRebuild;
+    /**
+     * Guards every change to this event. This is private, so that nothing outside this event can hold up its changes by
+     * synchronizing on the event itself.
+     */
+    private final Object lock = new Object();
     /**
      * The invoker field used to execute callbacks.
+     * <p>
+     * This is out of date while {@link #dirty} is set. Implementations may return {@code null} invokers, so this being
+     * {@code null} says nothing about whether it is out of date.
      */
     private volatile T invoker;
     /**
-     * Registered callbacks
+     * The call site backing {@link #invokerHandle()}, or {@code null} if no handle has been requested yet.
+     * <p>
+     * Its target always returns the current invoker, and is only changed while holding this event's lock.
+     */
+    private @Nullable MutableCallSite invokerSite;
+    /**
+     * Whether the current invoker has any callbacks to call.
+     * <p>
+     * Like {@link #invoker}, this is out of date while a lazily rebuilt event is out of date.
+     */
+    private volatile boolean listening = false;
+    /**
+     * Whether the invoker needs rebuilding before it can be used.
+     * <p>
+     * This is only ever set for events that rebuild lazily. It is only cleared once the rebuilt invoker has been
+     * published, so that anyone who sees it cleared also sees the rebuilt invoker.
+     */
+    private volatile boolean dirty = false;
+    /**
+     * Registered callbacks.
+     * <p>
+     * This array is shared with the phase data it came from, and with the invoker if the implementation is trusted with
+     * it, and must never be modified.
      */
     private T[] callbacks;
     /**
-     * Registered event phases.
+     * The only phase of this event, while this event has at most one phase.
+     * <p>
+     * Most events never get a second phase, so the phase maps below are only inflated once they do. Until then, the
+     * single phase's data is used to look up keys directly.
+     */
+    private @Nullable EventPhaseDataHolder<T> singlePhase;
+    /**
+     * Registered event phases, or {@code null} while this event has at most one phase.
+     */
+    private @Nullable Map<ResourceLocation, EventPhaseDataHolder<T>> phases;
+    /**
+     * Phases sorted in the correct dependency order, or {@code null} while this event has at most one phase.
+     */
+    private @Nullable List<EventPhaseDataHolder<T>> sortedPhases;
+    /**
+     * Map of phases by the keys they contain, or {@code null} while this event has at most one phase.
+     */
+    private @Nullable Map<Object, EventPhaseDataHolder<T>> keysInPhases;
+    /**
+     * Whether the phase orderings currently contain a cycle.
+     * <p>
+     * While there are no cycles, new phases and orderings are applied to {@link #sortedPhases} incrementally instead of
+     * re-sorting every phase.
      */
-    private final Map<ResourceLocation, EventPhaseDataHolder<T>> phases = new LinkedHashMap<>();
+    private boolean phaseCycles = false;
     /**
-     * Phases sorted in the correct dependency order.
+     * The shared default phases of this event, or {@code null} once this event has orderings of its own.
+     * <p>
+     * While this is set, phases only exist for the template's phases that have been used, {@link #sortedPhases} is
+     * kept in template order, and the phases are not linked to each other.
      */
-    private final List<EventPhaseDataHolder<T>> sortedPhases = new ArrayList<>();
+    private @Nullable PhaseTemplate phaseTemplate;
     /**
-     * Map of phases by the keys they contain.
+     * Whether this event has been {@linkplain #freeze() frozen}.
+     * <p>
+     * Once frozen, all the phase structures above are released, and only the invoker and the callbacks it was built
+     * from are kept.
      */
-    private final Map<Object, EventPhaseDataHolder<T>> keysInPhases = new HashMap<>();
+    private boolean frozen = false;
 
     @SuppressWarnings("unchecked")
-    private Event(Class<? super T> type, String qualifier, Function<T[], T> implementation, boolean addScanned,
-                  boolean sortPhaseCallbacks) {
-        this.sortPhaseCallbacks = sortPhaseCallbacks;
+    private Event(Class<? super T> type, String qualifier, Function<T[], T> implementation, boolean sharedCallbacks,
+                  boolean addScanned, ListenerStorage storage, boolean lazyRebuild,
+                  @Nullable PhaseTemplate phaseTemplate) {
+        this.storage = storage;
+        this.lazyRebuild = lazyRebuild;
+        this.phaseTemplate = phaseTemplate;
         Objects.requireNonNull(type, "Class specifying the type of T in the event cannot be null");
         Objects.requireNonNull(implementation, "Function to generate invoker implementation for T cannot be null");
 
         this.type = type;
         this.key = EventKey.fromClass(type, qualifier);
         this.implementation = implementation;
+        this.sharedCallbacks = sharedCallbacks;
         this.callbacks = (T[]) Array.newInstance(type, 0);
         this.update();
 
@@ -552,16 +880,14 @@ public final class Event<T> {
         Objects.requireNonNull(callback, "Tried to register a null callback!");
         Objects.requireNonNull(key, "Tried to register a callback with a null key!");
 
-        this.lock.lock();
-        try {
-            if (keysInPhases.containsKey(key)) return;
+        synchronized (this.lock) {
+            this.checkNotFrozen();
+            if (this.findPhase(key) != null) return;
 
-            EventPhaseDataHolder<T> phaseData = this.getOrCreatePhase(phase, true);
+            EventPhaseDataHolder<T> phaseData = this.getOrCreatePhase(phase);
             phaseData.addListener(key, callback);
-            keysInPhases.put(key, phaseData);
-            this.rebuildInvoker(this.callbacks.length + 1);
-        } finally {
-            this.lock.unlock();
+            if (keysInPhases != null) keysInPhases.put(key, phaseData);
+            this.invalidate();
         }
     }
 
@@ -571,8 +897,30 @@ public final class Event<T> {
      * @param key the key of the callback to unregister.
      */
     public void unregister(Object key) {
-        EventPhaseDataHolder<T> phaseData = keysInPhases.remove(key);
-        if (phaseData != null) phaseData.removeListener(key);
+        Objects.requireNonNull(key, "Tried to unregister a callback with a null key!");
+
+        synchronized (this.lock) {
+            this.checkNotFrozen();
+            EventPhaseDataHolder<T> phaseData = this.findPhase(key);
+            if (phaseData == null) return;
+
+            phaseData.removeListener(key);
+            if (keysInPhases != null) keysInPhases.remove(key);
+            this.invalidate();
+        }
+    }
+
+    /**
+     * Creates a new batch for registering many callbacks and phase orderings at once.
+     * <p>
+     * Nothing is applied to this event until {@link Batch#commit()} is called. At that point, all staged phase orderings
+     * and callbacks are applied together and the invoker is only rebuilt once. This is much cheaper than calling
+     * {@link #registerKeyed(ResourceLocation, Object, Object)} repeatedly when registering a large number of callbacks.
+     *
+     * @return a new registration batch for this event.
+     */
+    public Batch<T> batch() {
+        return new Batch<>(this);
     }
 
     /**
@@ -580,9 +928,13 @@ public final class Event<T> {
      *
      * @param key the callback key to check.
      * @return whether the given callback key is registered.
+     * @throws IllegalStateException if this event has been {@linkplain #freeze() frozen}.
      */
     public boolean isRegistered(Object key) {
-        return keysInPhases.containsKey(key);
+        synchronized (this.lock) {
+            this.checkNotFrozen();
+            return this.findPhase(key) != null;
+        }
     }
 
     /**
@@ -591,13 +943,134 @@ public final class Event<T> {
      * <p>You should avoid storing the result of this method since the invoker may become invalid at any time. Use this
      * method to obtain the invoker when you intend to execute an event.
      *
+     * <p>If this event {@link Builder#lazyRebuild(boolean) rebuilds lazily} and has changed since the last time its
+     * invoker was built, then the invoker is rebuilt here.
+     *
      * @return the invoker instance
      */
-    @Contract(pure = true)
     public T invoker() {
+        if (this.dirty) {
+            return this.rebuildIfDirty();
+        }
         return this.invoker;
     }
 
+    /**
+     * Checks whether this event has any callbacks registered.
+     * <p>
+     * This is cheap enough to call every time before firing the event, so that arguments that are expensive to build
+     * are only built when something is listening:
+     * <pre>{@code
+     * if (EXAMPLE.hasListeners()) {
+     *     EXAMPLE.invoker().doSomething(buildExpensiveContext());
+     * }
+     * }</pre>
+     *
+     * @return whether this event has any callbacks registered.
+     * @see #invokeLazily(Supplier, BiConsumer)
+     */
+    public boolean hasListeners() {
+        if (this.dirty) {
+            this.rebuildIfDirty();
+        }
+        return this.listening;
+    }
+
+    /**
+     * Executes this event with an argument that is only built if this event has any callbacks registered.
+     * <p>
+     * This is shorthand for checking {@link #hasListeners()} before executing the event.
+     *
+     * @param argument supplies the argument to pass to the invoker. Only called if this event has callbacks.
+     * @param action   executes the event using the invoker and the supplied argument.
+     * @param <A>      the type of the argument.
+     */
+    public <A> void invokeLazily(Supplier<? extends A> argument, BiConsumer<? super T, ? super A> action) {
+        if (this.hasListeners()) {
+            action.accept(this.invoker(), argument.get());
+        }
+    }
+
+    /**
+     * Returns a method handle that returns this event's current invoker.
+     * <p>
+     * The handle takes no arguments and returns the event's callback interface type. Unlike {@link #invoker()}, the
+     * handle stays valid for the lifetime of the event, and is backed by a {@link MutableCallSite} that gets re-targeted
+     * whenever the invoker changes. When the handle is stored in a {@code static final} field, the JIT can treat the
+     * invoker as a constant and inline it into the caller, only deoptimizing when this event's listeners change:
+     * <pre>{@code
+     * private static final MethodHandle EXAMPLE_INVOKER = EXAMPLE.invokerHandle();
+     *
+     * ((Example) EXAMPLE_INVOKER.invokeExact()).doSomething();
+     * }</pre>
+     * <p>
+     * Re-targeting the call site is more expensive than replacing the invoker field, so this is best suited to events
+     * whose listeners rarely change after startup.
+     *
+     * @return a method handle returning this event's current invoker.
+     */
+    public MethodHandle invokerHandle() {
+        synchronized (this.lock) {
+            if (this.invokerSite == null) {
+                this.invokerSite = new MutableCallSite(this.invokerTarget(this.dirty));
+            }
+            return this.invokerSite.dynamicInvoker();
+        }
+    }
+
+    /**
+     * Rebuilds this event's invoker now if any changes are waiting to be applied to it.
+     * <p>
+     * This only does anything for events that {@link Builder#lazyRebuild(boolean) rebuild lazily}. This can be used to
+     * move the cost of rebuilding the invoker away from the first time the event is fired after a change.
+     */
+    public void flush() {
+        if (this.dirty) {
+            this.rebuildIfDirty();
+        }
+    }
+
+    /**
+     * Freezes this event, keeping its current invoker forever.
+     * <p>
+     * Most events never change again once loading has finished. Freezing such an event applies any pending changes,
+     * then releases everything used to keep track of its phases and callback keys, only keeping the invoker itself.
+     * After that, registering or unregistering callbacks, adding phase orderings, committing batches and checking
+     * whether a key is registered all throw an {@link IllegalStateException}.
+     * <p>
+     * Freezing an event that is already frozen does nothing.
+     *
+     * @see EventBus#freezeAll()
+     */
+    public void freeze() {
+        synchronized (this.lock) {
+            if (this.frozen) return;
+
+            if (this.dirty) {
+                this.rebuildInvoker();
+                this.dirty = false;
+            }
+
+            this.frozen = true;
+            this.singlePhase = null;
+            this.phases = null;
+            this.sortedPhases = null;
+            this.keysInPhases = null;
+            this.phaseTemplate = null;
+        }
+    }
+
+    /**
+     * {@return whether this event has been frozen}
+     *
+     * @see #freeze()
+     */
+    public boolean isFrozen() {
+        synchronized (this.lock) {
+            return this.frozen;
+        }
+    }
+
     /**
      * Request that callbacks registered for one phase be executed before callbacks registered for another phase.
      * Relying on the default phases supplied to {@link Event#createWithPhases} should be preferred over manually
@@ -618,40 +1091,381 @@ public final class Event<T> {
         }
 
         synchronized (this.lock) {
-            var first = this.getOrCreatePhase(firstPhase, false);
-            var second = this.getOrCreatePhase(secondPhase, false);
-            PhaseData.link(first, second);
-            PhaseSorting.sortPhases(this.sortedPhases);
-            this.rebuildInvoker(this.callbacks.length);
+            this.checkNotFrozen();
+            if (this.phaseTemplate != null) {
+                if (this.phaseTemplate.isOrdered(firstPhase, secondPhase)) return;
+                this.divergeFromTemplate();
+            }
+
+            var first = this.getOrCreatePhase(firstPhase);
+            var second = this.getOrCreatePhase(secondPhase);
+            if (!PhaseData.link(first, second)) return;
+
+            if (this.phaseCycles) {
+                this.phaseCycles = !PhaseSorting.sortPhases(this.getSortedPhases());
+            } else {
+                this.phaseCycles = !PhaseSorting.addOrdering(this.getSortedPhases(), first, second);
+            }
+            this.invalidate();
+        }
+    }
+
+    /**
+     * A set of callback registrations and phase orderings that are applied to an event all at once.
+     * <p>
+     * Use {@link Event#batch()} to create new batches. Batches are not thread-safe, but committing a batch is.
+     *
+     * @param <T> the type of callback this batch registers.
+     */
+    public static final class Batch<T> {
+        private final Event<T> event;
+        private final List<ResourceLocation[]> orderings = new ArrayList<>();
+        private final List<StagedCallback<T>> callbacks = new ArrayList<>();
+        private final List<Object> removals = new ArrayList<>();
+
+        private Batch(Event<T> event) {
+            this.event = event;
+        }
+
+        /**
+         * Stages a callback to be registered.
+         * <p>
+         * This uses the callback object as its own key.
+         *
+         * @param callback the callback
+         * @return this batch.
+         * @see Event#register(Object)
+         */
+        public Batch<T> register(T callback) {
+            return registerKeyed(DEFAULT_PHASE, callback, callback);
+        }
+
+        /**
+         * Stages a callback to be registered to a specific phase.
+         * <p>
+         * This uses the callback object as its own key.
+         *
+         * @param phase    the phase name
+         * @param callback the callback
+         * @return this batch.
+         * @see Event#register(ResourceLocation, Object)
+         */
+        public Batch<T> register(ResourceLocation phase, T callback) {
+            return registerKeyed(phase, callback, callback);
+        }
+
+        /**
+         * Stages a keyed callback to be registered.
+         *
+         * @param key      the callback's key
+         * @param callback the callback
+         * @return this batch.
+         * @see Event#registerKeyed(Object, Object)
+         */
+        public Batch<T> registerKeyed(Object key, T callback) {
+            return registerKeyed(DEFAULT_PHASE, key, callback);
+        }
+
+        /**
+         * Stages a keyed callback to be registered to a specific phase.
+         * <p>
+         * If multiple callbacks are staged with the same key, only the first one is registered.
+         *
+         * @param phase    the phase name
+         * @param key      the callback's key
+         * @param callback the callback
+         * @return this batch.
+         * @see Event#registerKeyed(ResourceLocation, Object, Object)
+         */
+        public Batch<T> registerKeyed(ResourceLocation phase, Object key, T callback) {
+            Objects.requireNonNull(phase, "Tried to register a callback for a null phase!");
+            Objects.requireNonNull(callback, "Tried to register a null callback!");
+            Objects.requireNonNull(key, "Tried to register a callback with a null key!");
+
+            callbacks.add(new StagedCallback<>(phase, key, callback));
+            return this;
+        }
+
+        /**
+         * Stages the removal of the callback associated with the given key.
+         * <p>
+         * Removals are applied before any registrations staged in the same batch, so a key can be removed and
+         * re-registered with a different callback in a single batch.
+         *
+         * @param key the key of the callback to unregister.
+         * @return this batch.
+         * @see Event#unregister(Object)
+         */
+        public Batch<T> unregister(Object key) {
+            Objects.requireNonNull(key, "Tried to unregister a callback with a null key!");
+
+            removals.add(key);
+            return this;
+        }
+
+        /**
+         * Stages a phase ordering.
+         *
+         * @param firstPhase  the name of the phase that should run before the other.
+         * @param secondPhase the name of the phase that should run after the other.
+         * @return this batch.
+         * @see Event#addPhaseOrdering(ResourceLocation, ResourceLocation)
+         */
+        public Batch<T> addPhaseOrdering(ResourceLocation firstPhase, ResourceLocation secondPhase) {
+            Objects.requireNonNull(firstPhase, "Tried to add an ordering for a null phase.");
+            Objects.requireNonNull(secondPhase, "Tried to add an ordering for a null phase.");
+
+            if (firstPhase.equals(secondPhase)) {
+                throw new IllegalArgumentException("Tried to add a phase that depends on itself.");
+            }
+
+            orderings.add(new ResourceLocation[]{firstPhase, secondPhase});
+            return this;
+        }
+
+        /**
+         * Applies all staged removals, phase orderings, and callbacks to the event, rebuilding its invoker once.
+         * <p>
+         * This batch is cleared afterward and can be reused.
+         *
+         * @throws IllegalArgumentException if a staged key could not be told apart from an already registered key. The
+         *                                  changes applied before that are kept, and the invoker is rebuilt to match
+         *                                  them.
+         */
+        public void commit() {
+            if (removals.isEmpty() && orderings.isEmpty() && callbacks.isEmpty()) return;
+
+            event.commit(removals, orderings, callbacks);
+            removals.clear();
+            orderings.clear();
+            callbacks.clear();
         }
     }
 
+    private record StagedCallback<T>(ResourceLocation phase, Object key, T callback) {}
+
     /* Implementation */
 
-    private EventPhaseDataHolder<T> getOrCreatePhase(ResourceLocation id, boolean sortIfCreate) {
-        var phase = this.phases.get(id);
+    @SuppressWarnings("unchecked")
+    private void commit(List<Object> removals, List<ResourceLocation[]> orderings, List<StagedCallback<T>> staged) {
+        synchronized (this.lock) {
+            this.checkNotFrozen();
+            boolean sort = false;
+            boolean changed = false;
+
+            // phase data can reject keys that collide with existing ones, so keep the invoker in sync with whatever was
+            // applied before that happened
+            try {
+                for (Object key : removals) {
+                    EventPhaseDataHolder<T> phaseData = this.findPhase(key);
+                    if (phaseData != null) {
+                        phaseData.removeListener(key);
+                        if (keysInPhases != null) keysInPhases.remove(key);
+                        changed = true;
+                    }
+                }
+
+                for (ResourceLocation[] ordering : orderings) {
+                    if (this.phaseTemplate != null) {
+                        if (this.phaseTemplate.isOrdered(ordering[0], ordering[1])) continue;
+                        this.divergeFromTemplate();
+                    }
+
+                    var first = this.getOrCreatePhase(ordering[0]);
+                    var second = this.getOrCreatePhase(ordering[1]);
+                    if (PhaseData.link(first, second)) sort = true;
+                }
+
+                // group the new callbacks by phase, keeping registration order within each phase
+                Map<EventPhaseDataHolder<T>, List<StagedCallback<T>>> byPhase = new LinkedHashMap<>();
+                Map<Object, EventPhaseDataHolder<T>> newKeys = new HashMap<>();
+                for (StagedCallback<T> callback : staged) {
+                    if (this.findPhase(callback.key()) != null || newKeys.containsKey(callback.key())) continue;
+
+                    EventPhaseDataHolder<T> phaseData = this.getOrCreatePhase(callback.phase());
+                    byPhase.computeIfAbsent(phaseData, p -> new ArrayList<>()).add(callback);
+                    newKeys.put(callback.key(), phaseData);
+                }
+
+                for (var entry : byPhase.entrySet()) {
+                    List<StagedCallback<T>> phaseCallbacks = entry.getValue();
+                    int size = phaseCallbacks.size();
+                    Object[] keys = new Object[size];
+                    T[] listeners = (T[]) Array.newInstance(this.type, size);
+                    for (int i = 0; i < size; i++) {
+                        StagedCallback<T> callback = phaseCallbacks.get(i);
+                        keys[i] = callback.key();
+                        listeners[i] = callback.callback();
+                    }
+
+                    entry.getKey().addListeners(keys, listeners);
+                    if (keysInPhases != null) {
+                        for (Object key : keys) {
+                            keysInPhases.put(key, entry.getKey());
+                        }
+                    }
+                    changed = true;
+                }
+            } finally {
+                // new phases have already been inserted in order, so only new orderings need a full re-sort
+                if (sort && this.sortedPhases != null) {
+                    this.phaseCycles = !PhaseSorting.sortPhases(this.sortedPhases);
+                }
+
+                if (sort || changed) {
+                    this.invalidate();
+                }
+            }
+        }
+    }
+
+    private void checkNotFrozen() {
+        if (this.frozen) throw new IllegalStateException("Tried to modify or inspect the listeners of frozen event " +
+            this.key + ".");
+    }
+
+    private @Nullable EventPhaseDataHolder<T> findPhase(Object key) {
+        if (this.keysInPhases != null) return this.keysInPhases.get(key);
+        if (this.singlePhase != null && this.singlePhase.containsKey(key)) return this.singlePhase;
+        return null;
+    }
+
+    private EventPhaseDataHolder<T> getOrCreatePhase(ResourceLocation id) {
+        if (this.phaseTemplate != null && this.phaseTemplate.indexOf(id) < 0) this.divergeFromTemplate();
+
+        if (this.phases == null) {
+            if (this.singlePhase == null) {
+                this.singlePhase = new EventPhaseDataHolder<>(id, this.type, storage);
+                return this.singlePhase;
+            }
+
+            if (this.singlePhase.getName().equals(id)) return this.singlePhase;
+        }
+
+        var phases = this.getPhases();
+        var phase = phases.get(id);
 
         if (phase == null) {
-            phase = new EventPhaseDataHolder<>(id, this.callbacks.getClass().getComponentType(), sortPhaseCallbacks);
-            this.phases.put(id, phase);
-            this.sortedPhases.add(phase);
+            phase = new EventPhaseDataHolder<>(id, this.type, storage);
+            phases.put(id, phase);
 
-            if (sortIfCreate) {
-                PhaseSorting.sortPhases(this.sortedPhases);
+            if (this.phaseTemplate != null) {
+                this.insertTemplatePhase(this.phaseTemplate, phase);
+            } else if (this.phaseCycles) {
+                this.getSortedPhases().add(phase);
+                this.phaseCycles = !PhaseSorting.sortPhases(this.getSortedPhases());
+            } else {
+                PhaseSorting.insertPhase(this.getSortedPhases(), phase);
             }
         }
 
         return phase;
     }
 
-    private void rebuildInvoker(int newLength) {
+    private void insertTemplatePhase(PhaseTemplate template, EventPhaseDataHolder<T> phase) {
+        List<EventPhaseDataHolder<T>> sortedPhases = this.getSortedPhases();
+        int templateIndex = template.indexOf(phase.getName());
+
+        int index = 0;
+        int size = sortedPhases.size();
+        while (index < size && template.indexOf(sortedPhases.get(index).getName()) < templateIndex) {
+            index++;
+        }
+
+        sortedPhases.add(index, phase);
+    }
+
+    /**
+     * Copies the template's phases and orderings into this event's own phase graph, so that orderings the template does
+     * not cover can be added.
+     */
+    private void divergeFromTemplate() {
+        PhaseTemplate template = this.phaseTemplate;
+        if (template == null) return;
+        this.phaseTemplate = null;
+
+        var phases = this.getPhases();
+        List<EventPhaseDataHolder<T>> sortedPhases = this.getSortedPhases();
+        sortedPhases.clear();
+
+        EventPhaseDataHolder<T> previous = null;
+        for (ResourceLocation id : template.getPhases()) {
+            var phase = phases.get(id);
+            if (phase == null) {
+                phase = new EventPhaseDataHolder<>(id, this.type, storage);
+                phases.put(id, phase);
+            }
+            sortedPhases.add(phase);
+
+            if (previous != null) PhaseData.link(previous, phase);
+            previous = phase;
+        }
+
+        // the template's phases form a single chain, so they are already sorted
+        this.phaseCycles = false;
+    }
+
+    private Map<ResourceLocation, EventPhaseDataHolder<T>> getPhases() {
+        if (this.phases == null) this.inflatePhases();
+        return this.phases;
+    }
+
+    private List<EventPhaseDataHolder<T>> getSortedPhases() {
+        if (this.sortedPhases == null) this.inflatePhases();
+        return this.sortedPhases;
+    }
+
+    private void inflatePhases() {
+        this.phases = new LinkedHashMap<>();
+        this.sortedPhases = new ArrayList<>();
+        this.keysInPhases = new HashMap<>();
+
+        EventPhaseDataHolder<T> singlePhase = this.singlePhase;
+        if (singlePhase != null) {
+            this.phases.put(singlePhase.getName(), singlePhase);
+            this.sortedPhases.add(singlePhase);
+            singlePhase.forEachKey(key -> this.keysInPhases.put(key, singlePhase));
+            this.singlePhase = null;
+        }
+    }
+
+    private void invalidate() {
+        if (this.lazyRebuild) {
+            this.dirty = true;
+            this.retargetInvokerSite(true);
+        } else {
+            this.rebuildInvoker();
+        }
+    }
+
+    private T rebuildIfDirty() {
+        synchronized (this.lock) {
+            if (this.dirty) {
+                this.rebuildInvoker();
+                this.dirty = false;
+            }
+            return this.invoker;
+        }
+    }
+
+    private void rebuildInvoker() {
         // Rebuild handlers.
-        if (this.sortedPhases.size() == 1) {
+        if (this.sortedPhases == null) {
+            // Special case with at most one phase: use the array of the phase directly.
+            if (this.singlePhase != null) {
+                this.callbacks = this.singlePhase.getData().getCallbacks();
+            }
+        } else if (this.sortedPhases.size() == 1) {
             // Special case with a single phase: use the array of the phase directly.
             this.callbacks = this.sortedPhases.get(0).getData().getCallbacks();
         } else {
+            int newLength = 0;
+            for (var existingPhase : this.sortedPhases) {
+                newLength += existingPhase.getData().getCallbacks().length;
+            }
+
             @SuppressWarnings("unchecked")
-            var newCallbacks = (T[]) Array.newInstance(this.callbacks.getClass().getComponentType(), newLength);
+            var newCallbacks = (T[]) Array.newInstance(this.type, newLength);
             int newHandlersIndex = 0;
 
             for (var existingPhase : this.sortedPhases) {
@@ -669,9 +1483,57 @@ public final class Event<T> {
     }
 
     private void update() {
-        // Make a copy of the array we give to the invoker factory so entries cannot be removed from this event's
-        // backing array
-        this.invoker = this.implementation.apply(Arrays.copyOf(this.callbacks, this.callbacks.length));
+        // Phase data never modifies an array after handing it out, so the same array can be shared with generated
+        // invokers. Other implementations get a copy, so that they cannot modify the array the phase data still uses.
+        T[] callbacks = this.callbacks;
+        this.listening = callbacks.length > 0;
+        if (this.implementation instanceof TieredImplementation<T> tiered) {
+            this.publish(tiered.apply(callbacks, promoted -> this.promote(callbacks, promoted)));
+        } else if (this.sharedCallbacks) {
+            this.publish(this.implementation.apply(callbacks));
+        } else {
+            this.publish(this.implementation.apply(Arrays.copyOf(callbacks, callbacks.length)));
+        }
+    }
+
+    private void promote(T[] callbacks, T promoted) {
+        synchronized (this.lock) {
+            // only replace the invoker if it still belongs to the same callbacks
+            if (this.callbacks == callbacks && !this.dirty) {
+                this.publish(promoted);
+            }
+        }
+    }
+
+    /**
+     * Replaces the current invoker. Every change to the invoker must go through here, so that {@link #invokerHandle()}
+     * stays in sync with {@link #invoker()}.
+     *
+     * @param invoker the new invoker.
+     */
+    private void publish(T invoker) {
+        this.invoker = invoker;
+        this.retargetInvokerSite(false);
+    }
+
+    /**
+     * Re-targets the call site backing {@link #invokerHandle()}, if there is one.
+     *
+     * @param outOfDate whether the invoker needs rebuilding before it is next used.
+     */
+    private void retargetInvokerSite(boolean outOfDate) {
+        MutableCallSite invokerSite = this.invokerSite;
+        if (invokerSite != null) {
+            invokerSite.setTarget(this.invokerTarget(outOfDate));
+            MutableCallSite.syncAll(new MutableCallSite[]{invokerSite});
+        }
+    }
+
+    private MethodHandle invokerTarget(boolean outOfDate) {
+        // out of date, so the first call through the handle rebuilds the invoker, which re-targets the call site again
+        if (outOfDate) return REBUILD_IF_DIRTY.bindTo(this).asType(MethodType.methodType(this.type));
+
+        return MethodHandles.constant(this.type, this.invoker);
     }
 
     @Override
@@ -679,8 +1541,10 @@ public final class Event<T> {
         return "Event{" +
             "type=" + this.type +
             ", implementation=" + this.implementation +
-            ", phases=" + this.phases +
+            ", phases=" + (this.phases != null ? this.phases : this.singlePhase) +
             ", sortedPhases=" + this.sortedPhases +
+            ", phaseTemplate=" + this.phaseTemplate +
+            ", frozen=" + this.frozen +
             '}';
     }
 }
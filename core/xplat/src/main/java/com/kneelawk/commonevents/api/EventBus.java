@@ -18,24 +18,36 @@ package com.kneelawk.commonevents.api;
 
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.Type;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceArraySet;
 
 import net.minecraft.resources.ResourceLocation;
 
 import com.kneelawk.commonevents.api.adapter.ListenerHolder;
 import com.kneelawk.commonevents.api.adapter.util.AdapterUtils;
 import com.kneelawk.commonevents.impl.CELog;
+import com.kneelawk.commonevents.impl.event.EventKeyIndex;
 import com.kneelawk.commonevents.impl.scan.ScanManager;
 
 /**
@@ -45,10 +57,105 @@ import com.kneelawk.commonevents.impl.scan.ScanManager;
  * Event buses organize events by the event's callback interface type and qualifier. This is because objects registered
  * to an event bus are generally registered based on the type of callback they implement and which qualifier they are
  * annotated with.
+ * <p>
+ * Event buses are thread-safe. Looking up events never locks, even while other threads are adding events.
  */
 public final class EventBus {
     private final ResourceLocation name;
-    private final Map<EventKey, Event<?>> events = new Object2ObjectLinkedOpenHashMap<>();
+    /**
+     * The current events of this bus.
+     * <p>
+     * Tables are never modified once published. Adding an event publishes a modified copy instead, so that events can be
+     * looked up from any thread without locking.
+     */
+    private volatile Tables tables = new Tables(new Object2ObjectLinkedOpenHashMap<>(), new Event<?>[0]);
+
+    /**
+     * An immutable snapshot of the events in a bus.
+     *
+     * @param events     the events by key, in the order they were added.
+     * @param eventsById the same events, indexed by their keys' {@link EventKeyIndex ids}.
+     */
+    private record Tables(Map<EventKey, Event<?>> events, Event<?>[] eventsById) {}
+
+    /**
+     * The events each listener key has been registered to through this bus, so that unregistering a key only visits
+     * those events.
+     * <p>
+     * Guarded by itself.
+     */
+    private final Map<Object, Set<Event<?>>> eventsByKey = new Object2ObjectOpenHashMap<>();
+
+    /**
+     * The number of indexed keys at which {@link #eventsByKey} is next pruned of keys whose listeners were removed
+     * without going through this bus.
+     * <p>
+     * Guarded by {@link #eventsByKey}.
+     */
+    private int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    private static final int MIN_PRUNE_THRESHOLD = 64;
+
+    /**
+     * Receives the references of weakly registered listener objects once they have been garbage collected.
+     */
+    private final ReferenceQueue<Object> reclaimedListeners = new ReferenceQueue<>();
+
+    private static final MethodHandle REFERENCE_GET;
+    private static final MethodHandle NON_NULL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            REFERENCE_GET = lookup.findVirtual(Reference.class, "get", MethodType.methodType(Object.class));
+            NON_NULL = lookup.findStatic(Objects.class, "nonNull", MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The public static methods annotated with {@link Listen} in each class, ready to be registered.
+     * <p>
+     * The listeners are created when the class is first registered, and are reused every time after that.
+     */
+    private static final ClassValue<List<ListenerTemplate>> STATIC_LISTENER_TEMPLATES = new ClassValue<>() {
+        @Override
+        protected List<ListenerTemplate> computeValue(Class<?> clazz) {
+            List<ListenerTemplate> templates = new ObjectArrayList<>();
+            for (Method m : clazz.getDeclaredMethods()) {
+                if (Modifier.isPublic(m.getModifiers()) && Modifier.isStatic(m.getModifiers())) {
+                    Listen l = m.getAnnotation(Listen.class);
+                    if (l != null) {
+                        templates.add(buildTemplate(l, clazz, m, true));
+                    }
+                }
+            }
+            return List.copyOf(templates);
+        }
+    };
+
+    /**
+     * The public instance methods annotated with {@link Listen} in each class, ready to be bound to instances.
+     * <p>
+     * Looking up methods and linking them to their callback interfaces only happens the first time an instance of a
+     * class is registered. Registering more instances of the same class only binds each listener to the instance.
+     */
+    private static final ClassValue<List<ListenerTemplate>> INSTANCE_LISTENER_TEMPLATES = new ClassValue<>() {
+        @Override
+        protected List<ListenerTemplate> computeValue(Class<?> clazz) {
+            List<ListenerTemplate> templates = new ObjectArrayList<>();
+            for (Method m : clazz.getMethods()) {
+                if (Modifier.isPublic(m.getModifiers())) {
+                    Listen l = m.getAnnotation(Listen.class);
+                    if (l != null) {
+                        templates.add(buildTemplate(l, clazz, m, false));
+                    }
+                }
+            }
+            return List.copyOf(templates);
+        }
+    };
 
     /**
      * Event fired when an event bus is created.
@@ -148,11 +255,58 @@ public final class EventBus {
     /**
      * Add an event to this event bus. Any future listeners registered with this event bus will be able to be registered
      * to this event.
+     * <p>
+     * This is safe to call while other threads are using this bus, but copies the bus's tables, so it is best to add
+     * events while loading.
      *
      * @param event the event to add to the bus.
      */
     public void addEvent(Event<?> event) {
-        events.put(event.getKey(), event);
+        int id = EventKeyIndex.idOf(event.getKey());
+
+        synchronized (this) {
+            Tables tables = this.tables;
+
+            Map<EventKey, Event<?>> events = new Object2ObjectLinkedOpenHashMap<>(tables.events());
+            events.put(event.getKey(), event);
+
+            Event<?>[] eventsById = tables.eventsById();
+            eventsById = Arrays.copyOf(eventsById, Math.max(id + 1, eventsById.length));
+            eventsById[id] = event;
+
+            this.tables = new Tables(events, eventsById);
+        }
+    }
+
+    /**
+     * Creates a reusable handle for the specified event.
+     * <p>
+     * Looking up an event through a handle does not allocate anything, so callers that fire an event through this bus
+     * often should keep a handle instead of calling {@link #getInvoker(Class)} every time.
+     *
+     * @param callbackType the class of the callback interface of the event.
+     * @param <T>          the type of the callback interface.
+     * @return a handle for the event.
+     */
+    public <T> Handle<T> handle(Class<T> callbackType) {
+        return handle(callbackType, Event.DEFAULT_QUALIFIER);
+    }
+
+    /**
+     * Creates a reusable handle for the specified event.
+     * <p>
+     * Looking up an event through a handle does not allocate anything, so callers that fire an event through this bus
+     * often should keep a handle instead of calling {@link #getInvoker(Class, String)} every time.
+     *
+     * @param callbackType the class of the callback interface of the event.
+     * @param qualifier    the qualifier of the event.
+     * @param <T>          the type of the callback interface.
+     * @return a handle for the event.
+     */
+    public <T> Handle<T> handle(Class<T> callbackType, String qualifier) {
+        Objects.requireNonNull(callbackType, "Tried to create a handle for a null callback type.");
+        Objects.requireNonNull(qualifier, "Tried to create a handle for a null qualifier.");
+        return new Handle<>(this, EventKeyIndex.get(callbackType, qualifier));
     }
 
     /**
@@ -162,7 +316,7 @@ public final class EventBus {
      * @return whether this event bus has the event.
      */
     public boolean hasEvent(Class<?> callbackType) {
-        return hasEvent(EventKey.fromClass(callbackType, Event.DEFAULT_QUALIFIER));
+        return getEvent(EventKeyIndex.get(callbackType, Event.DEFAULT_QUALIFIER)) != null;
     }
 
     /**
@@ -173,7 +327,7 @@ public final class EventBus {
      * @return whether this event bus has the event.
      */
     public boolean hasEvent(Class<?> callbackType, String qualifier) {
-        return hasEvent(EventKey.fromClass(callbackType, qualifier));
+        return getEvent(EventKeyIndex.get(callbackType, qualifier)) != null;
     }
 
     /**
@@ -183,7 +337,31 @@ public final class EventBus {
      * @return whether this event bus has the event.
      */
     public boolean hasEvent(EventKey key) {
-        return events.containsKey(key);
+        return tables.events().containsKey(key);
+    }
+
+    /**
+     * Checks whether the specified event is present in this bus and has any listeners registered.
+     *
+     * @param callbackType the class of the callback interface of the event.
+     * @return whether the event is present and has listeners.
+     * @see Event#hasListeners()
+     */
+    public boolean hasListeners(Class<?> callbackType) {
+        return hasListeners(callbackType, Event.DEFAULT_QUALIFIER);
+    }
+
+    /**
+     * Checks whether the specified event is present in this bus and has any listeners registered.
+     *
+     * @param callbackType the class of the callback interface of the event.
+     * @param qualifier    the qualifier of the event.
+     * @return whether the event is present and has listeners.
+     * @see Event#hasListeners()
+     */
+    public boolean hasListeners(Class<?> callbackType, String qualifier) {
+        Event<?> event = getEvent(EventKeyIndex.get(callbackType, qualifier));
+        return event != null && event.hasListeners();
     }
 
     /**
@@ -209,9 +387,9 @@ public final class EventBus {
      */
     @SuppressWarnings("unchecked")
     public <T> T getInvoker(Class<T> callbackType, String qualifier) {
-        EventKey key = EventKey.fromClass(callbackType, qualifier);
-        Event<T> event = (Event<T>) events.get(key);
-        if (event == null) throw new EventNotFoundException("Event " + key + " not found in event bus " + name);
+        EventKeyIndex.IndexedKey key = EventKeyIndex.get(callbackType, qualifier);
+        Event<T> event = (Event<T>) getEvent(key);
+        if (event == null) throw new EventNotFoundException("Event " + key.key() + " not found in event bus " + name);
         return event.invoker();
     }
 
@@ -238,7 +416,7 @@ public final class EventBus {
      */
     @SuppressWarnings("unchecked")
     public <T> @Nullable T tryGetInvoker(Class<T> callbackType, String qualifier) {
-        Event<T> event = (Event<T>) events.get(EventKey.fromClass(callbackType, qualifier));
+        Event<T> event = (Event<T>) getEvent(EventKeyIndex.get(callbackType, qualifier));
         if (event == null) return null;
         return event.invoker();
     }
@@ -355,7 +533,6 @@ public final class EventBus {
      * @throws IllegalArgumentException if the specified callback interface and qualifier do not match any events in
      *                                  this bus.
      */
-    @SuppressWarnings("unchecked")
     public <T> void registerKeyedListener(Class<T> callbackInterface, String qualifier, ResourceLocation phase,
                                           Object key, T listener) {
         Objects.requireNonNull(callbackInterface, "Tried to register a listener with a null callback interface class!");
@@ -364,14 +541,9 @@ public final class EventBus {
         Objects.requireNonNull(listener, "Tried to register a null listener!");
         Objects.requireNonNull(key, "Tried to register a listener with a null key!");
 
-        EventKey eventKey = EventKey.fromClass(callbackInterface, qualifier);
-
-        Event<T> event = (Event<T>) events.get(eventKey);
-        if (event == null) throw new IllegalArgumentException(
-            "This event bus does not contain event for the key: '" + eventKey + "'. Contained events: " +
-                events.keySet());
-
+        Event<T> event = getEventForRegistration(callbackInterface, qualifier);
         event.registerKeyed(phase, key, listener);
+        indexKey(key, event);
     }
 
     /**
@@ -404,46 +576,304 @@ public final class EventBus {
         registerListeners(key, holders);
     }
 
+    /**
+     * Creates a new batch for registering many listeners to this event bus at once.
+     * <p>
+     * Nothing is registered until {@link Batch#commit()} is called. At that point, each affected event has all of its
+     * new listeners applied together and only rebuilds its invoker once.
+     *
+     * @return a new registration batch for this event bus.
+     */
+    public Batch batch() {
+        return new Batch(this);
+    }
+
+    /**
+     * Creates a new registration scope.
+     * <p>
+     * The returned scope can be used as the key for any of this bus's keyed registration methods. Closing it unregisters
+     * everything that was registered with it:
+     * <pre>{@code
+     * try (EventBus.Registration scope = MY_BUS.scope()) {
+     *     MY_BUS.registerListeners(scope, myListener);
+     *     MY_BUS.registerKeyedListener(MyOtherCallback.class, scope, ctx -> {});
+     *     // ...
+     * }
+     * }</pre>
+     * <p>
+     * Like any other key, a scope can only be registered to each event once.
+     *
+     * @return a new registration scope.
+     */
+    public Registration scope() {
+        return new Registration(this);
+    }
+
+    /**
+     * Registers multiple listeners to this event bus, returning a scope that unregisters them when closed.
+     *
+     * @param listeners the class or instance to search for listener methods.
+     * @return the scope the listeners were registered with.
+     * @see #registerListeners(Object, Object)
+     * @see #scope()
+     */
+    public Registration registerListenersScoped(Object listeners) {
+        Registration scope = scope();
+        registerListeners(scope, listeners);
+        return scope;
+    }
+
+    /**
+     * Registers multiple listeners to this event bus without keeping the listener object alive.
+     * <p>
+     * Listener methods are found the same way as for {@link #registerListeners(Object)}, but the registered listeners
+     * only hold the object weakly. Once the object has been garbage collected, its listeners do nothing, and are
+     * unregistered the next time this bus {@link #reclaimWeakListeners() reclaims weak listeners}. Until then, listeners
+     * with a return type return {@code null}, {@code 0}, or {@code false}.
+     * <p>
+     * Weakly registered listeners are called through a {@link MethodHandleProxies proxy}, so they are slower than
+     * listeners registered normally. Listeners registered normally are not affected. Weak registration requires the
+     * callback interfaces to be public.
+     *
+     * @param listeners the instance to search for listener methods.
+     * @return the scope the listeners were registered with, which can be closed to unregister them early.
+     * @throws IllegalArgumentException if {@code listeners} is a {@link Class}, as static listeners cannot be held
+     *                                  weakly.
+     */
+    public Registration registerListenersWeak(Object listeners) {
+        Objects.requireNonNull(listeners, "Tried to weakly register null listeners");
+        if (listeners instanceof Class<?>) throw new IllegalArgumentException(
+            "Tried to weakly register the static listeners of " + listeners + ". Only instances can be held weakly.");
+
+        reclaimWeakListeners();
+
+        Registration scope = scope();
+        WeakListenerReference reference = new WeakListenerReference(listeners, reclaimedListeners, scope);
+
+        List<ListenerTemplate> templates = INSTANCE_LISTENER_TEMPLATES.get(listeners.getClass());
+        List<ListenerHolder> holders = new ObjectArrayList<>(templates.size());
+        for (ListenerTemplate template : templates) {
+            holders.add(template.bindWeak(reference));
+        }
+
+        registerListeners(scope, holders);
+        return scope;
+    }
+
+    /**
+     * Unregisters the listeners of all weakly registered objects that have been garbage collected.
+     * <p>
+     * All reclaimed listeners are removed together, so each affected event only rebuilds its invoker once. This is
+     * called by {@link #flush()} and {@link #registerListenersWeak(Object)}, but can also be called at any other
+     * convenient point. Listeners of frozen events are never reclaimed.
+     */
+    public void reclaimWeakListeners() {
+        Map<Event<?>, Event.Batch<?>> batches = null;
+
+        Reference<?> reference;
+        while ((reference = reclaimedListeners.poll()) != null) {
+            Registration scope = ((WeakListenerReference) reference).scope;
+
+            Set<Event<?>> events;
+            synchronized (eventsByKey) {
+                events = eventsByKey.remove(scope);
+            }
+            if (events == null) continue;
+
+            if (batches == null) batches = new LinkedHashMap<>();
+            for (Event<?> event : events) {
+                if (!event.isFrozen()) {
+                    batches.computeIfAbsent(event, Event::batch).unregister(scope);
+                }
+            }
+        }
+
+        if (batches != null) {
+            for (Event.Batch<?> batch : batches.values()) {
+                batch.commit();
+            }
+        }
+    }
+
     /**
      * Unregisters all listeners associated with the given key.
+     * <p>
+     * This only visits the events the key was registered to through this bus, so listeners that were registered directly
+     * to one of this bus's events with the same key are not affected. Listeners of frozen events are never unregistered.
      *
      * @param key the key of the listeners to unregister.
      */
     public void unregisterListeners(Object key) {
-        for (Event<?> event : events.values()) {
-            event.unregister(key);
+        Set<Event<?>> events;
+        synchronized (eventsByKey) {
+            events = eventsByKey.get(key);
+            if (events == null) return;
+            events = new ReferenceArraySet<>(events);
+        }
+
+        for (Event<?> event : events) {
+            if (!event.isFrozen()) {
+                event.unregister(key);
+            }
+        }
+
+        // only forget the events once the key has been removed from them, so that a failure can be retried
+        synchronized (eventsByKey) {
+            Set<Event<?>> indexed = eventsByKey.get(key);
+            if (indexed != null) {
+                indexed.removeAll(events);
+                if (indexed.isEmpty()) eventsByKey.remove(key);
+            }
         }
     }
 
-    private List<ListenerHolder> findListeners(Object listeners) {
-        List<ListenerHolder> holders = new ObjectArrayList<>();
+    private void indexKey(Object key, Event<?> event) {
+        synchronized (eventsByKey) {
+            eventsByKey.computeIfAbsent(key, k -> new ReferenceArraySet<>()).add(event);
 
-        if (listeners instanceof Class<?> clazz) {
-            for (Method m : clazz.getDeclaredMethods()) {
-                if (Modifier.isPublic(m.getModifiers()) && Modifier.isStatic(m.getModifiers())) {
-                    Listen l = m.getAnnotation(Listen.class);
-                    if (l != null) {
-                        holders.add(buildHolder(l, clazz, m, null));
-                    }
-                }
+            if (eventsByKey.size() >= pruneThreshold) {
+                pruneKeys();
+                pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, eventsByKey.size() * 2);
             }
+        }
+    }
+
+    /**
+     * Forgets the events that no longer hold each key's listeners, like when they were unregistered directly from the
+     * event, and the keys left without any events, so that the index does not keep them alive.
+     * <p>
+     * This is only done once the index has doubled in size since it was last pruned, so it stays cheap on average.
+     */
+    private void pruneKeys() {
+        var iter = eventsByKey.entrySet().iterator();
+        while (iter.hasNext()) {
+            var entry = iter.next();
+            Object key = entry.getKey();
+            entry.getValue().removeIf(event -> !holdsKey(event, key));
+            if (entry.getValue().isEmpty()) iter.remove();
+        }
+    }
+
+    /**
+     * Checks whether the listener with the given key is still registered to the given event, and can still be
+     * unregistered from it.
+     */
+    private static boolean holdsKey(Event<?> event, Object key) {
+        if (event.isFrozen()) return false;
+
+        try {
+            return event.isRegistered(key);
+        } catch (IllegalStateException e) {
+            // frozen in the meantime
+            return false;
+        }
+    }
+
+    /**
+     * Rebuilds the invokers of all events in this bus that have changes waiting to be applied.
+     * <p>
+     * This only affects events that {@link Event.Builder#lazyRebuild(boolean) rebuild lazily}, and can be called at a
+     * convenient point, like the start of a tick, so that the first dispatch of each event does not pay for the rebuild.
+     * <p>
+     * This also {@link #reclaimWeakListeners() reclaims} the listeners of weakly registered objects that have been
+     * garbage collected.
+     *
+     * @see Event#flush()
+     */
+    public void flush() {
+        reclaimWeakListeners();
+        for (Event<?> event : tables.events().values()) {
+            event.flush();
+        }
+    }
+
+    /**
+     * Freezes every event in this bus, keeping their current invokers forever.
+     * <p>
+     * This is meant to be called once loading has finished and no more listeners are expected. Listeners can no longer
+     * be registered to or unregistered from any of the frozen events afterward.
+     *
+     * @see Event#freeze()
+     */
+    public void freezeAll() {
+        for (Event<?> event : tables.events().values()) {
+            event.freeze();
+        }
+    }
+
+    private List<ListenerHolder> findListeners(Object listeners) {
+        List<ListenerTemplate> templates;
+        Object instance;
+        if (listeners instanceof Class<?> clazz) {
+            templates = STATIC_LISTENER_TEMPLATES.get(clazz);
+            instance = null;
         } else {
-            Class<?> clazz = listeners.getClass();
-            for (Method m : clazz.getMethods()) {
-                if (Modifier.isPublic(m.getModifiers())) {
-                    Listen l = m.getAnnotation(Listen.class);
-                    if (l != null) {
-                        holders.add(buildHolder(l, clazz, m, listeners));
-                    }
-                }
-            }
+            templates = INSTANCE_LISTENER_TEMPLATES.get(listeners.getClass());
+            instance = listeners;
+        }
+
+        List<ListenerHolder> holders = new ObjectArrayList<>(templates.size());
+        for (ListenerTemplate template : templates) {
+            holders.add(template.bind(instance));
         }
 
         return holders;
     }
 
-    private ListenerHolder buildHolder(Listen annotation, Class<?> listenerClass, Method listenerMethod,
-                                       @Nullable Object instance) {
+    /**
+     * A listener method that has been linked to its callback interface, but not yet bound to an instance.
+     *
+     * @param key     the key of the event the listener is for.
+     * @param phase   the phase the listener is registered to.
+     * @param factory           creates the listener from the listener object. Has type {@code (Object)Object}.
+     * @param callbackInterface the callback interface the listener implements.
+     * @param method            the listener method, taking the listener object as its first argument, or {@code null}
+     *                          for static listeners.
+     */
+    private record ListenerTemplate(EventKey key, ResourceLocation phase, MethodHandle factory,
+                                    Class<?> callbackInterface, @Nullable MethodHandle method) {
+        ListenerHolder bind(@Nullable Object instance) {
+            try {
+                return new ListenerHolder(key, phase, (Object) factory.invokeExact(instance));
+            } catch (Throwable e) {
+                throw new RuntimeException("Error creating listener for event " + key, e);
+            }
+        }
+
+        ListenerHolder bindWeak(WeakListenerReference reference) {
+            assert method != null : "Static listeners cannot be held weakly";
+
+            // (Object, args...) -> listener object != null ? method(listener object, args...) : default
+            MethodType callType = method.type().changeParameterType(0, Object.class);
+            MethodHandle call = MethodHandles.guardWithTest(NON_NULL, method.asType(callType),
+                MethodHandles.empty(callType));
+
+            // (args...) -> call(reference.get(), args...)
+            MethodHandle handle = MethodHandles.foldArguments(call, REFERENCE_GET.bindTo(reference));
+
+            try {
+                return new ListenerHolder(key, phase, MethodHandleProxies.asInterfaceInstance(callbackInterface, handle));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Error creating weak listener for event " + key, e);
+            }
+        }
+    }
+
+    /**
+     * A weak reference to a listener object, remembering the scope its listeners were registered with so that they can
+     * be unregistered once the object has been garbage collected.
+     */
+    private static final class WeakListenerReference extends WeakReference<Object> {
+        private final Registration scope;
+
+        private WeakListenerReference(Object referent, ReferenceQueue<Object> queue, Registration scope) {
+            super(referent, queue);
+            this.scope = scope;
+        }
+    }
+
+    private static ListenerTemplate buildTemplate(Listen annotation, Class<?> listenerClass, Method listenerMethod,
+                                                  boolean isStatic) {
         Class<?> callbackInterface = annotation.value();
         ResourceLocation phase = ResourceLocation.parse(annotation.phase());
 
@@ -459,29 +889,33 @@ public final class EventBus {
         checkReturnTypes(callbackInterface, listenerClass, interfaceMethod, listenerMethod, expectedMethodType,
             actualMethodType);
 
+        EventKey key = EventKey.fromClass(callbackInterface, annotation.qualifier());
+        MethodType factoryType = MethodType.methodType(Object.class, Object.class);
+
         try {
-            if (instance == null) {
+            if (isStatic) {
                 MethodHandle handle =
                     AdapterUtils.LOOKUP.findStatic(listenerClass, listenerMethod.getName(), actualMethodType);
 
+                // static listeners do not capture anything, so the same listener can be shared by every registration
                 Object listener = callbackInterface.cast(
                     LambdaMetafactory.metafactory(AdapterUtils.LOOKUP, interfaceMethod.getName(),
                             MethodType.methodType(callbackInterface), expectedMethodType, handle, expectedMethodType)
                         .getTarget().invoke());
 
-                return new ListenerHolder(EventKey.fromClass(callbackInterface, annotation.qualifier()), phase,
-                    listener);
+                return new ListenerTemplate(key, phase,
+                    MethodHandles.dropArguments(MethodHandles.constant(Object.class, listener), 0, Object.class),
+                    callbackInterface, null);
             } else {
                 MethodHandle handle =
                     AdapterUtils.LOOKUP.findVirtual(listenerClass, listenerMethod.getName(), actualMethodType);
 
-                Object listener = callbackInterface.cast(
+                MethodHandle factory =
                     LambdaMetafactory.metafactory(AdapterUtils.LOOKUP, interfaceMethod.getName(),
                         MethodType.methodType(callbackInterface, listenerClass), expectedMethodType, handle,
-                        expectedMethodType).getTarget().invoke(instance));
+                        expectedMethodType).getTarget();
 
-                return new ListenerHolder(EventKey.fromClass(callbackInterface, annotation.qualifier()), phase,
-                    listener);
+                return new ListenerTemplate(key, phase, factory.asType(factoryType), callbackInterface, handle);
             }
         } catch (Throwable e) {
             throw handleError(callbackInterface, listenerClass, interfaceMethod, listenerMethod, expectedMethodType,
@@ -517,11 +951,294 @@ public final class EventBus {
                 " with callback interface " + callbackClassName + "." + interfaceMethod.getName() + expectedType, e);
     }
 
-    @SuppressWarnings("unchecked")
     private void registerListeners(Object key, List<ListenerHolder> holders) {
-        for (ListenerHolder holder : holders) {
-            Event<Object> event = (Event<Object>) events.get(holder.key());
-            if (event != null) event.registerKeyed(key, holder.listener());
+        Batch batch = batch();
+        batch.registerHolders(key, holders);
+        batch.commit();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Event<T> getEventForRegistration(Class<T> callbackInterface, String qualifier) {
+        EventKeyIndex.IndexedKey eventKey = EventKeyIndex.get(callbackInterface, qualifier);
+
+        Event<T> event = (Event<T>) getEvent(eventKey);
+        if (event == null) throw new IllegalArgumentException(
+            "This event bus does not contain event for the key: '" + eventKey.key() + "'. Contained events: " +
+                tables.events().keySet());
+
+        return event;
+    }
+
+    private @Nullable Event<?> getEvent(EventKeyIndex.IndexedKey key) {
+        Event<?>[] eventsById = this.tables.eventsById();
+        int id = key.id();
+        return id < eventsById.length ? eventsById[id] : null;
+    }
+
+    /**
+     * A reusable handle for an event in an event bus.
+     * <p>
+     * The event's key is resolved when the handle is created, so looking up the event through the handle is only an
+     * array read. The event is looked up every time, so handles can be created before their events are added to the
+     * bus.
+     * <p>
+     * Use {@link EventBus#handle(Class, String)} to create new handles.
+     *
+     * @param <T> the type of the callback interface of the event.
+     */
+    public static final class Handle<T> {
+        private final EventBus bus;
+        private final EventKeyIndex.IndexedKey key;
+
+        private Handle(EventBus bus, EventKeyIndex.IndexedKey key) {
+            this.bus = bus;
+            this.key = key;
+        }
+
+        /**
+         * {@return the key of the event this handle is for}
+         */
+        public EventKey getKey() {
+            return key.key();
+        }
+
+        /**
+         * Gets the event this handle is for.
+         *
+         * @return the event.
+         * @throws EventNotFoundException if the event is not present in the bus.
+         */
+        @SuppressWarnings("unchecked")
+        public Event<T> getEvent() {
+            Event<T> event = (Event<T>) bus.getEvent(key);
+            if (event == null)
+                throw new EventNotFoundException("Event " + key.key() + " not found in event bus " + bus.name);
+            return event;
+        }
+
+        /**
+         * Tries to get the event this handle is for.
+         *
+         * @return the event, or {@code null} if the event is not present in the bus.
+         */
+        @SuppressWarnings("unchecked")
+        public @Nullable Event<T> tryGetEvent() {
+            return (Event<T>) bus.getEvent(key);
+        }
+
+        /**
+         * Gets the invoker of the event this handle is for.
+         *
+         * @return the event's invoker.
+         * @throws EventNotFoundException if the event is not present in the bus.
+         */
+        public T invoker() {
+            return getEvent().invoker();
+        }
+
+        /**
+         * Tries to get the invoker of the event this handle is for.
+         *
+         * @return the event's invoker, or {@code null} if the event is not present in the bus.
+         */
+        public @Nullable T tryGetInvoker() {
+            Event<T> event = tryGetEvent();
+            if (event == null) return null;
+            return event.invoker();
+        }
+
+        /**
+         * Checks whether the event this handle is for is present in the bus and has any listeners registered.
+         *
+         * @return whether the event is present and has listeners.
+         * @see Event#hasListeners()
+         */
+        public boolean hasListeners() {
+            Event<T> event = tryGetEvent();
+            return event != null && event.hasListeners();
+        }
+    }
+
+    /**
+     * A set of listener registrations that are applied to the events in an event bus all at once.
+     * <p>
+     * Use {@link EventBus#batch()} to create new batches. Batches are not thread-safe, but committing a batch is.
+     */
+    public static final class Batch {
+        private final EventBus bus;
+        private final Map<Event<?>, Event.Batch<?>> batches = new LinkedHashMap<>();
+        private final Map<Event<?>, Set<Object>> stagedKeys = new LinkedHashMap<>();
+
+        private Batch(EventBus bus) {
+            this.bus = bus;
+        }
+
+        /**
+         * Stages a listener for the given event type.
+         *
+         * @param callbackInterface the callback interface the event handles and the listener implements.
+         * @param listener          the event listener to register.
+         * @param <T>               the type of the callback interface the listener implements.
+         * @return this batch.
+         * @throws IllegalArgumentException if the specified callback interface does not match any events in the bus.
+         * @see EventBus#registerListener(Class, Object)
+         */
+        public <T> Batch registerListener(Class<T> callbackInterface, T listener) {
+            return registerKeyedListener(callbackInterface, Event.DEFAULT_QUALIFIER, Event.DEFAULT_PHASE, listener,
+                listener);
+        }
+
+        /**
+         * Stages a listener for the given event type.
+         *
+         * @param callbackInterface the callback interface the event handles and the listener implements.
+         * @param phase             the phase to register the listener to.
+         * @param listener          the event listener to register.
+         * @param <T>               the type of the callback interface the listener implements.
+         * @return this batch.
+         * @throws IllegalArgumentException if the specified callback interface does not match any events in the bus.
+         * @see EventBus#registerListener(Class, ResourceLocation, Object)
+         */
+        public <T> Batch registerListener(Class<T> callbackInterface, ResourceLocation phase, T listener) {
+            return registerKeyedListener(callbackInterface, Event.DEFAULT_QUALIFIER, phase, listener, listener);
+        }
+
+        /**
+         * Stages a keyed listener for the given event type.
+         *
+         * @param callbackInterface the callback interface the event handles and the listener implements.
+         * @param key               the key used to remove the listener.
+         * @param listener          the event listener to register.
+         * @param <T>               the type of the callback interface the listener implements.
+         * @return this batch.
+         * @throws IllegalArgumentException if the specified callback interface does not match any events in the bus.
+         * @see EventBus#registerKeyedListener(Class, Object, Object)
+         */
+        public <T> Batch registerKeyedListener(Class<T> callbackInterface, Object key, T listener) {
+            return registerKeyedListener(callbackInterface, Event.DEFAULT_QUALIFIER, Event.DEFAULT_PHASE, key,
+                listener);
+        }
+
+        /**
+         * Stages a keyed listener for the given event type.
+         *
+         * @param callbackInterface the callback interface the event handles and the listener implements.
+         * @param qualifier         the event's qualifier to distinguish between events with the same callback interface.
+         * @param phase             the phase to register the listener to.
+         * @param key               the key used to remove the listener.
+         * @param listener          the event listener to register.
+         * @param <T>               the type of the callback interface the listener implements.
+         * @return this batch.
+         * @throws IllegalArgumentException if the specified callback interface and qualifier do not match any events
+         *                                  in the bus.
+         * @see EventBus#registerKeyedListener(Class, String, ResourceLocation, Object, Object)
+         */
+        public <T> Batch registerKeyedListener(Class<T> callbackInterface, String qualifier, ResourceLocation phase,
+                                               Object key, T listener) {
+            Objects.requireNonNull(callbackInterface,
+                "Tried to register a listener with a null callback interface class!");
+            Objects.requireNonNull(qualifier, "Tried to register a listener with a null event qualifier!");
+            Objects.requireNonNull(phase, "Tried to register a listener to a null phase!");
+            Objects.requireNonNull(listener, "Tried to register a null listener!");
+            Objects.requireNonNull(key, "Tried to register a listener with a null key!");
+
+            Event<T> event = bus.getEventForRegistration(callbackInterface, qualifier);
+            stage(event, key).registerKeyed(phase, key, listener);
+            return this;
+        }
+
+        /**
+         * Stages all listeners found in the given class or instance.
+         *
+         * @param listeners the class or instance to search for listener methods.
+         * @return this batch.
+         * @see EventBus#registerListeners(Object)
+         */
+        public Batch registerListeners(Object listeners) {
+            return registerListeners(listeners, listeners);
+        }
+
+        /**
+         * Stages all listeners found in the given class or instance, using the given removal key.
+         *
+         * @param key       the removal key to associate all found listeners with.
+         * @param listeners the class or instance to search for listener methods.
+         * @return this batch.
+         * @see EventBus#registerListeners(Object, Object)
+         */
+        public Batch registerListeners(Object key, Object listeners) {
+            registerHolders(key, bus.findListeners(listeners));
+            return this;
+        }
+
+        /**
+         * Applies all staged listeners to their events, rebuilding each affected event's invoker once.
+         * <p>
+         * This batch is cleared afterward and can be reused. Listener keys are only associated with their events once
+         * they have been committed, so unregistering a key before committing does not affect listeners staged with it.
+         */
+        public void commit() {
+            for (var entry : batches.entrySet()) {
+                Event<?> event = entry.getKey();
+                boolean committed = false;
+                try {
+                    entry.getValue().commit();
+                    committed = true;
+                } finally {
+                    // a commit that failed partway may still have registered some of its listeners, but only those
+                    for (Object key : stagedKeys.get(event)) {
+                        if (committed || holdsKey(event, key)) bus.indexKey(key, event);
+                    }
+                }
+            }
+            batches.clear();
+            stagedKeys.clear();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void registerHolders(Object key, List<ListenerHolder> holders) {
+            for (ListenerHolder holder : holders) {
+                Event<Object> event = (Event<Object>) bus.tables.events().get(holder.key());
+                if (event != null) {
+                    stage(event, key).registerKeyed(holder.phase(), key, holder.listener());
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> Event.Batch<T> stage(Event<T> event, Object key) {
+            stagedKeys.computeIfAbsent(event, e -> new ObjectOpenHashSet<>()).add(key);
+            return (Event.Batch<T>) batches.computeIfAbsent(event, Event::batch);
+        }
+    }
+
+    /**
+     * A registration scope, used as the key of listeners registered to an event bus.
+     * <p>
+     * Closing the scope unregisters every listener registered with it, only visiting the events it was actually
+     * registered to. Closing a scope more than once does nothing. Use {@link EventBus#scope()} or
+     * {@link EventBus#registerListenersScoped(Object)} to create new scopes.
+     */
+    public static final class Registration implements AutoCloseable {
+        private final EventBus bus;
+
+        private Registration(EventBus bus) {
+            this.bus = bus;
+        }
+
+        /**
+         * {@return the event bus this scope registers listeners to}
+         */
+        public EventBus getBus() {
+            return bus;
+        }
+
+        /**
+         * Unregisters every listener registered with this scope.
+         */
+        @Override
+        public void close() {
+            bus.unregisterListeners(this);
         }
     }
 }
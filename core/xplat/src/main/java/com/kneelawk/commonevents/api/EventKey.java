@@ -20,6 +20,7 @@ import org.objectweb.asm.Type;
 
 import com.kneelawk.commonevents.api.adapter.ListenerHandle;
 import com.kneelawk.commonevents.impl.CEConstants;
+import com.kneelawk.commonevents.impl.event.EventKeyIndex;
 
 /**
  * A unique key that describes an {@link Event}.
@@ -31,14 +32,16 @@ import com.kneelawk.commonevents.impl.CEConstants;
  */
 public record EventKey(Type type, String qualifier) {
     /**
-     * Creates an event key from a class instead of an ASM type.
+     * Gets an event key from a class instead of an ASM type.
+     * <p>
+     * Keys are cached per class, so this does not allocate after the first call for a given class and qualifier.
      *
      * @param clazz     the class of the callback interface.
-     * @param qualifier the additional qualifier.
-     * @return the newly created event key.
+     * @param qualifier the additional qualifier, or {@link Event#DEFAULT_QUALIFIER} if none. Must not be {@code null}.
+     * @return the event key.
      */
     public static EventKey fromClass(Class<?> clazz, String qualifier) {
-        return new EventKey(Type.getType(clazz), qualifier);
+        return EventKeyIndex.get(clazz, qualifier).key();
     }
 
     @Override
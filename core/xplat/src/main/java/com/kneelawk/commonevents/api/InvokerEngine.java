@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api;
+
+/**
+ * Describes how a generated event implementation calls its listeners.
+ * <p>
+ * Invoker engines only apply to events whose implementations are generated, like those created with
+ * {@link Event#createSimple(Class, InvokerEngine)}, {@link Event#builderSimple(Class)},
+ * {@link Event#builderShortCircuit(Class, ShortCircuit)} or {@link Event#builderReducing(Class, Reducer)}.
+ */
+public enum InvokerEngine {
+    /**
+     * Loops over the array of listeners, calling each one from the same call site.
+     * <p>
+     * Rebuilding the invoker is cheap, but once listeners of more than two different classes are registered, the
+     * shared call site can no longer be inlined by the JIT.
+     */
+    LOOP,
+
+    /**
+     * Defines a new hidden class for every set of listeners, with each listener embedded as a constant and called from
+     * its own call site, so that the JIT can inline every listener.
+     * <p>
+     * Rebuilding the invoker defines a new class, so events that change often should use this together with
+     * {@link Event.Builder#lazyRebuild(boolean)} or {@link Event#batch()}. Superseded classes are unloaded once nothing
+     * references them anymore. Events with too many listeners to unroll fall back to {@link #LOOP}.
+     */
+    SPECIALIZED,
+
+    /**
+     * Starts out like {@link #LOOP}, but counts how often the invoker is called, and switches to a
+     * {@link #SPECIALIZED} invoker once the count reaches a threshold. The specialized invoker is defined on a
+     * background thread, and the loop is kept if that fails.
+     * <p>
+     * This keeps rarely called events from defining classes they do not need, while still letting hot events be
+     * inlined. The count starts over every time the event's listeners change. The threshold can be set per event with
+     * {@link Event.Builder#tieredThreshold(int)}, and otherwise defaults to the
+     * {@code com.kneelawk.common_events.tiered_threshold} system property, or {@code 10000}.
+     */
+    TIERED,
+
+    /**
+     * Composes handles to each listener with {@link java.lang.invoke.MethodHandles} combinators, and wraps the
+     * resulting handle in an instance of a small generated class that calls it.
+     * <p>
+     * Only one class is ever defined per callback interface, no matter how often its listeners change, which makes
+     * this a good fit for environments where defining classes is expensive or metaspace is tight. Rebuilding the
+     * invoker only composes new handles. Calls go through the composed handle, which the JIT cannot inline as well as
+     * a class of its own, so invokers are usually slower than {@link #SPECIALIZED} ones.
+     */
+    METHOD_HANDLES
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Describes how a generated event implementation combines the primitive results of all its listeners into a single
+ * result.
+ * <p>
+ * Every listener is called, and the results are combined without boxing. An event with no listeners returns the
+ * reducer's identity: {@code 0} for sums and ors, all bits set for ands, the type's maximum value (or positive infinity)
+ * for minimums, and the type's minimum value (or negative infinity) for maximums.
+ * <p>
+ * Use {@link Event#createReducing(Class, Reducer)} or {@link Event#builderReducing(Class, Reducer)} to create events
+ * with these implementations.
+ */
+public enum Reducer {
+    /**
+     * Adds up {@code int} results.
+     */
+    SUM_INT(Operation.SUM, int.class),
+    /**
+     * Adds up {@code long} results.
+     */
+    SUM_LONG(Operation.SUM, long.class),
+    /**
+     * Adds up {@code float} results.
+     */
+    SUM_FLOAT(Operation.SUM, float.class),
+    /**
+     * Adds up {@code double} results.
+     */
+    SUM_DOUBLE(Operation.SUM, double.class),
+    /**
+     * Finds the smallest {@code int} result.
+     */
+    MIN_INT(Operation.MIN, int.class),
+    /**
+     * Finds the smallest {@code long} result.
+     */
+    MIN_LONG(Operation.MIN, long.class),
+    /**
+     * Finds the smallest {@code float} result, as determined by {@link Math#min(float, float)}.
+     */
+    MIN_FLOAT(Operation.MIN, float.class),
+    /**
+     * Finds the smallest {@code double} result, as determined by {@link Math#min(double, double)}.
+     */
+    MIN_DOUBLE(Operation.MIN, double.class),
+    /**
+     * Finds the largest {@code int} result.
+     */
+    MAX_INT(Operation.MAX, int.class),
+    /**
+     * Finds the largest {@code long} result.
+     */
+    MAX_LONG(Operation.MAX, long.class),
+    /**
+     * Finds the largest {@code float} result, as determined by {@link Math#max(float, float)}.
+     */
+    MAX_FLOAT(Operation.MAX, float.class),
+    /**
+     * Finds the largest {@code double} result, as determined by {@link Math#max(double, double)}.
+     */
+    MAX_DOUBLE(Operation.MAX, double.class),
+    /**
+     * Combines {@code int} flags with a bitwise or.
+     */
+    OR_INT(Operation.OR, int.class),
+    /**
+     * Combines {@code long} flags with a bitwise or.
+     */
+    OR_LONG(Operation.OR, long.class),
+    /**
+     * Combines {@code int} flags with a bitwise and.
+     */
+    AND_INT(Operation.AND, int.class),
+    /**
+     * Combines {@code long} flags with a bitwise and.
+     */
+    AND_LONG(Operation.AND, long.class);
+
+    private final Operation operation;
+    private final Class<?> resultType;
+
+    Reducer(Operation operation, Class<?> resultType) {
+        this.operation = operation;
+        this.resultType = resultType;
+    }
+
+    /**
+     * {@return the operation used to combine results}
+     */
+    @Contract(pure = true)
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * {@return the primitive type that the callback interface's singular method must return}
+     */
+    @Contract(pure = true)
+    public Class<?> getResultType() {
+        return resultType;
+    }
+
+    /**
+     * The operations reducers can use to combine results.
+     */
+    public enum Operation {
+        /**
+         * Adds results together.
+         */
+        SUM,
+        /**
+         * Keeps the smaller result.
+         */
+        MIN,
+        /**
+         * Keeps the larger result.
+         */
+        MAX,
+        /**
+         * Combines results with a bitwise or.
+         */
+        OR,
+        /**
+         * Combines results with a bitwise and.
+         */
+        AND
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api;
+
+import java.util.Objects;
+
+/**
+ * Describes how a generated event implementation combines the results of its listeners, stopping at the first listener
+ * whose result decides the outcome.
+ * <p>
+ * Use {@link Event#createShortCircuit(Class, ShortCircuit)} or {@link Event#builderShortCircuit(Class, ShortCircuit)}
+ * to create events with these implementations.
+ */
+public sealed interface ShortCircuit {
+    /**
+     * Listeners return {@code boolean}. The first listener to return {@code false} stops the event, which then returns
+     * {@code false}. If no listener returns {@code false}, the event returns {@code true}.
+     * <p>
+     * This is useful for events that listeners can cancel.
+     *
+     * @return the first-{@code false} short-circuit.
+     */
+    static ShortCircuit firstFalse() {
+        return FirstFalse.INSTANCE;
+    }
+
+    /**
+     * Listeners return {@code boolean}. The first listener to return {@code true} stops the event, which then returns
+     * {@code true}. If no listener returns {@code true}, the event returns {@code false}.
+     *
+     * @return the first-{@code true} short-circuit.
+     */
+    static ShortCircuit firstTrue() {
+        return FirstTrue.INSTANCE;
+    }
+
+    /**
+     * Listeners return an object. The first listener to return something other than {@code null} stops the event,
+     * which then returns that result. If every listener returns {@code null}, the event returns {@code null}.
+     *
+     * @return the first-non-{@code null} short-circuit.
+     */
+    static ShortCircuit firstNonNull() {
+        return FirstNonNull.INSTANCE;
+    }
+
+    /**
+     * Listeners return an enum constant. The first listener to return something other than the sentinel stops the
+     * event, which then returns that result. If every listener returns the sentinel, the event returns the sentinel.
+     * <p>
+     * The callback interface's singular method must return exactly the sentinel's enum type.
+     *
+     * @param sentinel the result that lets the event continue on to the next listener, usually something like
+     *                 {@code PASS}.
+     * @return the first-non-sentinel short-circuit.
+     */
+    static ShortCircuit firstNot(Enum<?> sentinel) {
+        return new FirstNot(sentinel);
+    }
+
+    /**
+     * Stops at the first {@code false} result.
+     *
+     * @see #firstFalse()
+     */
+    final class FirstFalse implements ShortCircuit {
+        private static final FirstFalse INSTANCE = new FirstFalse();
+
+        private FirstFalse() {}
+
+        @Override
+        public String toString() {
+            return "FirstFalse";
+        }
+    }
+
+    /**
+     * Stops at the first {@code true} result.
+     *
+     * @see #firstTrue()
+     */
+    final class FirstTrue implements ShortCircuit {
+        private static final FirstTrue INSTANCE = new FirstTrue();
+
+        private FirstTrue() {}
+
+        @Override
+        public String toString() {
+            return "FirstTrue";
+        }
+    }
+
+    /**
+     * Stops at the first non-{@code null} result.
+     *
+     * @see #firstNonNull()
+     */
+    final class FirstNonNull implements ShortCircuit {
+        private static final FirstNonNull INSTANCE = new FirstNonNull();
+
+        private FirstNonNull() {}
+
+        @Override
+        public String toString() {
+            return "FirstNonNull";
+        }
+    }
+
+    /**
+     * Stops at the first result that is not the sentinel.
+     *
+     * @param sentinel the result that lets the event continue on to the next listener.
+     * @see #firstNot(Enum)
+     */
+    record FirstNot(Enum<?> sentinel) implements ShortCircuit {
+        /**
+         * Creates a new first-non-sentinel short-circuit.
+         *
+         * @param sentinel the result that lets the event continue on to the next listener.
+         */
+        public FirstNot {
+            Objects.requireNonNull(sentinel, "Tried to create a short-circuit with a null sentinel.");
+        }
+    }
+}
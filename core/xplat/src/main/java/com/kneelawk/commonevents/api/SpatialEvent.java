@@ -0,0 +1,801 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * An event whose callbacks only listen for positions inside a region of a dimension, like a machine's chunk or a
+ * claimed area.
+ * <p>
+ * Callbacks are registered with either a {@link BoundingBox} or a set of chunks, and are indexed by the dimension and
+ * chunks they overlap. Each chunk with callbacks has its own {@link Event}, so getting the invoker for a position is
+ * two map lookups, and firing it only calls the callbacks in that position's chunk. The cost of firing the event does
+ * not grow with the total number of callbacks:
+ * <pre>{@code
+ * public static final SpatialEvent<Explosion> EXPLOSION = SpatialEvent.create(Event.builderSimple(Explosion.class),
+ *     (callback, box) -> (level, pos) -> {
+ *         if (box.isInside(pos)) callback.onExplosion(level, pos);
+ *     });
+ *
+ * public static void registerMyClaim(Level level, BoundingBox claim) {
+ *     EXPLOSION.registerKeyed(level, claim, myClaimKey, (level, pos) -> {
+ *         // only called for explosions inside the claim
+ *     });
+ * }
+ *
+ * public static void onExplosion(Level level, BlockPos pos) {
+ *     EXPLOSION.invoker(level.dimension(), pos).onExplosion(level, pos);
+ * }
+ * }</pre>
+ * <p>
+ * A box rarely lines up with the chunks it overlaps. In the chunks it only partially covers, its callback is wrapped by
+ * the event's {@link Filter}, which checks the position in the callback's arguments against the box. A box covers a
+ * chunk when it spans the whole chunk horizontally and the whole build height of the level it was registered for.
+ * <p>
+ * Registering a callback copies the index of its dimension if it overlaps chunks without callbacks yet. Use
+ * {@link #batch()} when registering many callbacks at once, like when loading claims.
+ * <p>
+ * Spatial events manage their own callbacks, so they are not scanned for {@link Listen} annotated listeners and cannot
+ * be added to {@link EventBus event buses}.
+ *
+ * @param <T> the type of callback this event calls.
+ */
+public final class SpatialEvent<T> {
+    /**
+     * The maximum number of chunks a single callback's region can overlap.
+     * <p>
+     * Every overlapped chunk gets an event of its own, so regions much larger than this should be split into an event
+     * of their own instead.
+     */
+    public static final int MAX_REGION_CHUNKS = 1 << 12;
+
+    private final Event.Builder<T> builder;
+    private final Filter<T> filter;
+    private final Event<T> empty;
+
+    /**
+     * The cells of every chunk that has callbacks, by dimension and then by {@link ChunkPos#toLong()}.
+     * <p>
+     * Maps are never modified once published. Adding or removing cells publishes modified copies instead, so that cells
+     * can be looked up from any thread without locking.
+     */
+    private volatile Map<ResourceKey<Level>, Long2ObjectOpenHashMap<Cell<T>>> dimensions =
+        new Reference2ObjectOpenHashMap<>();
+
+    /**
+     * All phase orderings added to this event, so that they can be added to the events of new cells.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private final List<ResourceLocation[]> orderings = new ArrayList<>();
+
+    /**
+     * The region of every registered callback, by key.
+     * <p>
+     * Guarded by {@code this}.
+     */
+    private final Map<Object, Region> regionsByKey = new Object2ObjectOpenHashMap<>();
+
+    private SpatialEvent(Event.Builder<T> builder, Filter<T> filter) {
+        this.builder = builder.scanned(false);
+        this.filter = Objects.requireNonNull(filter, "Tried to create a spatial event with a null filter");
+        this.empty = builder.build();
+    }
+
+    /**
+     * Creates a new spatial event.
+     * <p>
+     * The given builder is used to build the event of each chunk, so its implementation, phases, and other options
+     * apply to each of them. The builder is set to not be scanned and should not be used for anything else afterward.
+     *
+     * @param builder the builder of the events for each chunk.
+     * @param filter  wraps callbacks so that they only run for positions inside their boxes.
+     * @param <T>     the type of callback.
+     * @return a new spatial event.
+     */
+    public static <T> SpatialEvent<T> create(Event.Builder<T> builder, Filter<T> filter) {
+        return new SpatialEvent<>(builder, filter);
+    }
+
+    /**
+     * Restricts callbacks to the positions inside their boxes.
+     *
+     * @param <T> the type of callback.
+     */
+    @FunctionalInterface
+    public interface Filter<T> {
+        /**
+         * Wraps a callback so that it only runs for positions inside the given box.
+         * <p>
+         * This is only used for boxes that do not cover every chunk they overlap, and is called when the callback is
+         * registered. For positions outside the box, the returned callback should do nothing, or return a value that
+         * does not affect the event's result.
+         *
+         * @param callback the callback to wrap.
+         * @param box      the box the callback was registered with.
+         * @return the wrapped callback.
+         */
+        T filter(T callback, BoundingBox box);
+    }
+
+    /**
+     * {@return the type of callback this event calls}
+     */
+    public Class<? super T> getType() {
+        return empty.getType();
+    }
+
+    /**
+     * Returns the invoker that calls every callback whose region contains the given position.
+     *
+     * <p>You should avoid storing the result of this method since the invoker may become invalid at any time. Use this
+     * method to obtain the invoker when you intend to execute an event.
+     *
+     * @param dimension the dimension the position is in.
+     * @param pos       the position to call the callbacks of.
+     * @return the invoker for the given position.
+     */
+    public T invoker(ResourceKey<Level> dimension, BlockPos pos) {
+        Cell<T> cell = getCell(dimension, ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        return cell != null ? cell.event.invoker() : empty.invoker();
+    }
+
+    /**
+     * Returns the invoker that calls every callback whose region overlaps the given chunk.
+     * <p>
+     * Callbacks whose boxes only partially cover the chunk are still {@linkplain Filter filtered} by the position in
+     * their arguments.
+     *
+     * <p>You should avoid storing the result of this method since the invoker may become invalid at any time. Use this
+     * method to obtain the invoker when you intend to execute an event.
+     *
+     * @param dimension the dimension the chunk is in.
+     * @param pos       the chunk to call the callbacks of.
+     * @return the invoker for the given chunk.
+     */
+    public T invoker(ResourceKey<Level> dimension, ChunkPos pos) {
+        Cell<T> cell = getCell(dimension, pos.toLong());
+        return cell != null ? cell.event.invoker() : empty.invoker();
+    }
+
+    /**
+     * Checks whether any callback's region contains the given position.
+     * <p>
+     * This can be used to skip building the event's arguments.
+     *
+     * @param dimension the dimension the position is in.
+     * @param pos       the position to check.
+     * @return whether any callbacks would be called for the given position.
+     */
+    public boolean hasListeners(ResourceKey<Level> dimension, BlockPos pos) {
+        Cell<T> cell = getCell(dimension, ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (cell == null) return false;
+        if (cell.whole > 0) return true;
+
+        for (BoundingBox box : cell.partial) {
+            if (box.isInside(pos)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Registers a callback for every position inside the given box.
+     * <p>
+     * This uses the callback object as its own key.
+     *
+     * @param level    the level the box is in.
+     * @param box      the region the callback listens to.
+     * @param callback the callback.
+     */
+    public void register(Level level, BoundingBox box, T callback) {
+        batch().register(level, box, callback).commit();
+    }
+
+    /**
+     * Registers a keyed callback for every position inside the given box.
+     *
+     * @param level    the level the box is in.
+     * @param box      the region the callback listens to.
+     * @param key      the callback's key.
+     * @param callback the callback.
+     */
+    public void registerKeyed(Level level, BoundingBox box, Object key, T callback) {
+        batch().registerKeyed(level, box, key, callback).commit();
+    }
+
+    /**
+     * Registers a keyed callback for every position inside the given box, in a specific phase.
+     * <p>
+     * The callback key is used for un-registering the callback. Only one callback can be registered for a given key.
+     * <p>
+     * The level is only used for its dimension and build height, and is not kept.
+     *
+     * @param level    the level the box is in.
+     * @param box      the region the callback listens to.
+     * @param phase    the phase name.
+     * @param key      the callback's key.
+     * @param callback the callback.
+     * @throws IllegalArgumentException if the box is empty or overlaps more than {@link #MAX_REGION_CHUNKS} chunks.
+     */
+    public void registerKeyed(Level level, BoundingBox box, ResourceLocation phase, Object key, T callback) {
+        batch().registerKeyed(level, box, phase, key, callback).commit();
+    }
+
+    /**
+     * Registers a callback for every position inside the given chunks.
+     * <p>
+     * This uses the callback object as its own key.
+     *
+     * @param dimension the dimension the chunks are in.
+     * @param chunks    the chunks the callback listens to.
+     * @param callback  the callback.
+     */
+    public void register(ResourceKey<Level> dimension, Collection<ChunkPos> chunks, T callback) {
+        batch().register(dimension, chunks, callback).commit();
+    }
+
+    /**
+     * Registers a keyed callback for every position inside the given chunks.
+     *
+     * @param dimension the dimension the chunks are in.
+     * @param chunks    the chunks the callback listens to.
+     * @param key       the callback's key.
+     * @param callback  the callback.
+     */
+    public void registerKeyed(ResourceKey<Level> dimension, Collection<ChunkPos> chunks, Object key, T callback) {
+        batch().registerKeyed(dimension, chunks, key, callback).commit();
+    }
+
+    /**
+     * Registers a keyed callback for every position inside the given chunks, in a specific phase.
+     * <p>
+     * The callback key is used for un-registering the callback. Only one callback can be registered for a given key.
+     *
+     * @param dimension the dimension the chunks are in.
+     * @param chunks    the chunks the callback listens to.
+     * @param phase     the phase name.
+     * @param key       the callback's key.
+     * @param callback  the callback.
+     * @throws IllegalArgumentException if there are more than {@link #MAX_REGION_CHUNKS} chunks.
+     */
+    public void registerKeyed(ResourceKey<Level> dimension, Collection<ChunkPos> chunks, ResourceLocation phase,
+                              Object key, T callback) {
+        batch().registerKeyed(dimension, chunks, phase, key, callback).commit();
+    }
+
+    /**
+     * Removes the callback associated with the given key.
+     *
+     * @param key the key of the callback to unregister.
+     */
+    public void unregister(Object key) {
+        Objects.requireNonNull(key, "Tried to unregister a callback with a null key!");
+
+        synchronized (this) {
+            Region region = regionsByKey.remove(key);
+            if (region == null) return;
+
+            Long2ObjectOpenHashMap<Cell<T>> cells = dimensions.get(region.dimension);
+            if (cells == null) return;
+
+            Long2ObjectOpenHashMap<Cell<T>> newCells = null;
+            for (long chunk : region.chunks) {
+                Cell<T> cell = cells.get(chunk);
+                if (cell == null) continue;
+
+                if (region.covers(chunk)) {
+                    cell.whole--;
+                } else {
+                    cell.removePartial(region.box);
+                }
+
+                if (cell.isEmpty()) {
+                    if (newCells == null) newCells = new Long2ObjectOpenHashMap<>(cells);
+                    newCells.remove(chunk);
+                } else {
+                    cell.event.unregister(key);
+                }
+            }
+
+            if (newCells != null) publishCells(region.dimension, newCells);
+        }
+    }
+
+    /**
+     * Checks whether the given callback key is registered with this event.
+     *
+     * @param key the callback key to check.
+     * @return whether the given callback key is registered.
+     */
+    public boolean isRegistered(Object key) {
+        synchronized (this) {
+            return regionsByKey.containsKey(key);
+        }
+    }
+
+    /**
+     * Request that listeners registered for one phase be executed before listeners registered for another phase.
+     *
+     * @param firstPhase  the name of the phase that should run before the other.
+     * @param secondPhase the name of the phase that should run after the other.
+     * @see Event#addPhaseOrdering(ResourceLocation, ResourceLocation)
+     */
+    public void addPhaseOrdering(ResourceLocation firstPhase, ResourceLocation secondPhase) {
+        Objects.requireNonNull(firstPhase, "Tried to add an ordering for a null phase.");
+        Objects.requireNonNull(secondPhase, "Tried to add an ordering for a null phase.");
+
+        if (firstPhase.equals(secondPhase)) {
+            throw new IllegalArgumentException("Tried to add a phase that depends on itself.");
+        }
+
+        synchronized (this) {
+            orderings.add(new ResourceLocation[]{firstPhase, secondPhase});
+            for (Long2ObjectOpenHashMap<Cell<T>> cells : dimensions.values()) {
+                for (Cell<T> cell : cells.values()) {
+                    cell.event.addPhaseOrdering(firstPhase, secondPhase);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new batch for registering many callbacks at once.
+     * <p>
+     * Nothing is applied until {@link Batch#commit()} is called. At that point, the index of each affected dimension is
+     * only copied once, and the event of each affected chunk only rebuilds its invoker once.
+     *
+     * @return a new registration batch for this event.
+     */
+    public Batch<T> batch() {
+        return new Batch<>(this);
+    }
+
+    private void commit(List<StagedCallback<T>> staged) {
+        synchronized (this) {
+            Map<ResourceKey<Level>, Long2ObjectOpenHashMap<Cell<T>>> dimensions = this.dimensions;
+            Map<ResourceKey<Level>, Long2ObjectOpenHashMap<Cell<T>>> newDimensions = new Reference2ObjectOpenHashMap<>();
+            Map<Cell<T>, CellChanges<T>> changes = new LinkedHashMap<>();
+            Map<Object, Region> newRegions = new Object2ObjectOpenHashMap<>();
+
+            // stage everything first, so that nothing is changed if a callback cannot be registered
+            for (StagedCallback<T> callback : staged) {
+                Region region = callback.region();
+                Object key = callback.key();
+                if (regionsByKey.containsKey(key) || newRegions.containsKey(key)) continue;
+                newRegions.put(key, region);
+
+                Long2ObjectOpenHashMap<Cell<T>> cells = dimensions.get(region.dimension());
+                Long2ObjectOpenHashMap<Cell<T>> newCells = newDimensions.get(region.dimension());
+
+                for (long chunk : region.chunks()) {
+                    Cell<T> cell = newCells != null ? newCells.get(chunk) : cells != null ? cells.get(chunk) : null;
+                    CellChanges<T> cellChanges;
+                    if (cell == null) {
+                        if (newCells == null) {
+                            newCells =
+                                cells != null ? new Long2ObjectOpenHashMap<>(cells) : new Long2ObjectOpenHashMap<>();
+                            newDimensions.put(region.dimension(), newCells);
+                        }
+                        cell = new Cell<>(builder.build());
+                        newCells.put(chunk, cell);
+
+                        cellChanges = new CellChanges<>(cell.event.batch(), false);
+                        for (ResourceLocation[] ordering : orderings) {
+                            cellChanges.batch.addPhaseOrdering(ordering[0], ordering[1]);
+                        }
+                        changes.put(cell, cellChanges);
+                    } else {
+                        cellChanges = changes.computeIfAbsent(cell, c -> new CellChanges<>(c.event.batch(), true));
+                    }
+
+                    if (region.covers(chunk)) {
+                        cellChanges.batch.registerKeyed(callback.phase(), key, callback.callback());
+                        cellChanges.whole++;
+                    } else {
+                        cellChanges.batch.registerKeyed(callback.phase(), key, callback.filtered());
+                        cellChanges.partial.add(region.box());
+                    }
+                    cellChanges.keys.add(key);
+                }
+            }
+
+            try {
+                for (CellChanges<T> cellChanges : changes.values()) {
+                    cellChanges.batch.commit();
+                }
+            } catch (RuntimeException e) {
+                // new cells were never published, but cells that already existed must not keep callbacks that are not
+                // in regionsByKey, since they could never be unregistered
+                for (var entry : changes.entrySet()) {
+                    if (!entry.getValue().existing) continue;
+
+                    Event.Batch<T> undo = entry.getKey().event.batch();
+                    for (Object key : entry.getValue().keys) {
+                        undo.unregister(key);
+                    }
+                    undo.commit();
+                }
+                throw e;
+            }
+
+            for (var entry : changes.entrySet()) {
+                Cell<T> cell = entry.getKey();
+                CellChanges<T> cellChanges = entry.getValue();
+                cell.whole += cellChanges.whole;
+                if (!cellChanges.partial.isEmpty()) cell.addPartial(cellChanges.partial);
+            }
+
+            regionsByKey.putAll(newRegions);
+
+            if (!newDimensions.isEmpty()) {
+                Map<ResourceKey<Level>, Long2ObjectOpenHashMap<Cell<T>>> published =
+                    new Reference2ObjectOpenHashMap<>(dimensions);
+                published.putAll(newDimensions);
+                this.dimensions = published;
+            }
+        }
+    }
+
+    private @Nullable Cell<T> getCell(ResourceKey<Level> dimension, long chunk) {
+        Long2ObjectOpenHashMap<Cell<T>> cells = dimensions.get(dimension);
+        return cells != null ? cells.get(chunk) : null;
+    }
+
+    private void publishCells(ResourceKey<Level> dimension, Long2ObjectOpenHashMap<Cell<T>> cells) {
+        Map<ResourceKey<Level>, Long2ObjectOpenHashMap<Cell<T>>> newDimensions =
+            new Reference2ObjectOpenHashMap<>(dimensions);
+        if (cells.isEmpty()) {
+            newDimensions.remove(dimension);
+        } else {
+            newDimensions.put(dimension, cells);
+        }
+        dimensions = newDimensions;
+    }
+
+    private static Region boxRegion(Level level, BoundingBox box) {
+        if (box.maxX() < box.minX() || box.maxY() < box.minY() || box.maxZ() < box.minZ()) {
+            throw new IllegalArgumentException("Tried to register a callback for an empty region: " + box);
+        }
+
+        int minChunkX = box.minX() >> 4;
+        int minChunkZ = box.minZ() >> 4;
+        int maxChunkX = box.maxX() >> 4;
+        int maxChunkZ = box.maxZ() >> 4;
+
+        long chunkCount = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+        checkRegionSize(chunkCount);
+
+        long[] chunks = new long[(int) chunkCount];
+        int i = 0;
+        for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                chunks[i++] = ChunkPos.asLong(chunkX, chunkZ);
+            }
+        }
+
+        return new Region(level.dimension(), chunks, box, level.getMinBuildHeight(), level.getMaxBuildHeight() - 1);
+    }
+
+    private static Region chunkRegion(ResourceKey<Level> dimension, Collection<ChunkPos> chunks) {
+        checkRegionSize(chunks.size());
+
+        LongOpenHashSet chunkSet = new LongOpenHashSet(chunks.size());
+        for (ChunkPos chunk : chunks) {
+            chunkSet.add(chunk.toLong());
+        }
+
+        return new Region(dimension, chunkSet.toLongArray(), null, 0, 0);
+    }
+
+    private static void checkRegionSize(long chunkCount) {
+        if (chunkCount > MAX_REGION_CHUNKS) throw new IllegalArgumentException(
+            "Tried to register a callback for a region of " + chunkCount + " chunks, which is more than the maximum of " +
+                MAX_REGION_CHUNKS + " chunks.");
+    }
+
+    @Override
+    public String toString() {
+        return "SpatialEvent{type=" + empty.getType() + ", dimensions=" + dimensions.keySet() + "}";
+    }
+
+    /**
+     * A set of callback registrations that are applied to a spatial event all at once.
+     * <p>
+     * Use {@link SpatialEvent#batch()} to create new batches. Regions are checked and callbacks are
+     * {@linkplain Filter filtered} when they are staged. Batches are not thread-safe, but committing a batch is.
+     *
+     * @param <T> the type of callback this batch registers.
+     */
+    public static final class Batch<T> {
+        private final SpatialEvent<T> event;
+        private final List<StagedCallback<T>> callbacks = new ArrayList<>();
+
+        private Batch(SpatialEvent<T> event) {
+            this.event = event;
+        }
+
+        /**
+         * Stages a callback for every position inside the given box.
+         * <p>
+         * This uses the callback object as its own key.
+         *
+         * @param level    the level the box is in.
+         * @param box      the region the callback listens to.
+         * @param callback the callback.
+         * @return this batch.
+         * @see SpatialEvent#register(Level, BoundingBox, Object)
+         */
+        public Batch<T> register(Level level, BoundingBox box, T callback) {
+            return registerKeyed(level, box, Event.DEFAULT_PHASE, callback, callback);
+        }
+
+        /**
+         * Stages a keyed callback for every position inside the given box.
+         *
+         * @param level    the level the box is in.
+         * @param box      the region the callback listens to.
+         * @param key      the callback's key.
+         * @param callback the callback.
+         * @return this batch.
+         * @see SpatialEvent#registerKeyed(Level, BoundingBox, Object, Object)
+         */
+        public Batch<T> registerKeyed(Level level, BoundingBox box, Object key, T callback) {
+            return registerKeyed(level, box, Event.DEFAULT_PHASE, key, callback);
+        }
+
+        /**
+         * Stages a keyed callback for every position inside the given box, in a specific phase.
+         * <p>
+         * If multiple callbacks are staged with the same key, only the first one is registered.
+         *
+         * @param level    the level the box is in.
+         * @param box      the region the callback listens to.
+         * @param phase    the phase name.
+         * @param key      the callback's key.
+         * @param callback the callback.
+         * @return this batch.
+         * @throws IllegalArgumentException if the box is empty or overlaps more than {@link #MAX_REGION_CHUNKS}
+         *                                  chunks.
+         * @see SpatialEvent#registerKeyed(Level, BoundingBox, ResourceLocation, Object, Object)
+         */
+        public Batch<T> registerKeyed(Level level, BoundingBox box, ResourceLocation phase, Object key, T callback) {
+            Objects.requireNonNull(level, "Tried to register a callback for a null level!");
+            Objects.requireNonNull(box, "Tried to register a callback for a null region!");
+            Objects.requireNonNull(phase, "Tried to register a callback for a null phase!");
+            Objects.requireNonNull(callback, "Tried to register a null callback!");
+            Objects.requireNonNull(key, "Tried to register a callback with a null key!");
+
+            Region region = boxRegion(level, box);
+            T filtered = null;
+            if (!region.coversAll()) {
+                filtered = Objects.requireNonNull(event.filter.filter(callback, box),
+                    "Tried to register a callback that the spatial event's filter turned into null");
+            }
+
+            callbacks.add(new StagedCallback<>(region, phase, key, callback, filtered));
+            return this;
+        }
+
+        /**
+         * Stages a callback for every position inside the given chunks.
+         * <p>
+         * This uses the callback object as its own key.
+         *
+         * @param dimension the dimension the chunks are in.
+         * @param chunks    the chunks the callback listens to.
+         * @param callback  the callback.
+         * @return this batch.
+         * @see SpatialEvent#register(ResourceKey, Collection, Object)
+         */
+        public Batch<T> register(ResourceKey<Level> dimension, Collection<ChunkPos> chunks, T callback) {
+            return registerKeyed(dimension, chunks, Event.DEFAULT_PHASE, callback, callback);
+        }
+
+        /**
+         * Stages a keyed callback for every position inside the given chunks.
+         *
+         * @param dimension the dimension the chunks are in.
+         * @param chunks    the chunks the callback listens to.
+         * @param key       the callback's key.
+         * @param callback  the callback.
+         * @return this batch.
+         * @see SpatialEvent#registerKeyed(ResourceKey, Collection, Object, Object)
+         */
+        public Batch<T> registerKeyed(ResourceKey<Level> dimension, Collection<ChunkPos> chunks, Object key,
+                                      T callback) {
+            return registerKeyed(dimension, chunks, Event.DEFAULT_PHASE, key, callback);
+        }
+
+        /**
+         * Stages a keyed callback for every position inside the given chunks, in a specific phase.
+         * <p>
+         * If multiple callbacks are staged with the same key, only the first one is registered.
+         *
+         * @param dimension the dimension the chunks are in.
+         * @param chunks    the chunks the callback listens to.
+         * @param phase     the phase name.
+         * @param key       the callback's key.
+         * @param callback  the callback.
+         * @return this batch.
+         * @throws IllegalArgumentException if there are more than {@link #MAX_REGION_CHUNKS} chunks.
+         * @see SpatialEvent#registerKeyed(ResourceKey, Collection, ResourceLocation, Object, Object)
+         */
+        public Batch<T> registerKeyed(ResourceKey<Level> dimension, Collection<ChunkPos> chunks,
+                                      ResourceLocation phase, Object key, T callback) {
+            Objects.requireNonNull(dimension, "Tried to register a callback for a null dimension!");
+            Objects.requireNonNull(chunks, "Tried to register a callback for a null region!");
+            Objects.requireNonNull(phase, "Tried to register a callback for a null phase!");
+            Objects.requireNonNull(callback, "Tried to register a null callback!");
+            Objects.requireNonNull(key, "Tried to register a callback with a null key!");
+
+            callbacks.add(new StagedCallback<>(chunkRegion(dimension, chunks), phase, key, callback, null));
+            return this;
+        }
+
+        /**
+         * Applies all staged callbacks.
+         * <p>
+         * Either every staged callback whose key is not registered yet is registered, or, if the event of a chunk
+         * rejects one of them, none are. This batch is cleared afterward and can be reused.
+         */
+        public void commit() {
+            if (callbacks.isEmpty()) return;
+
+            event.commit(callbacks);
+            callbacks.clear();
+        }
+    }
+
+    /**
+     * A staged callback.
+     *
+     * @param region   the region the callback listens to.
+     * @param phase    the phase name.
+     * @param key      the callback's key.
+     * @param callback the callback.
+     * @param filtered the callback wrapped by the event's filter, or {@code null} if the region covers every chunk it
+     *                 overlaps.
+     */
+    private record StagedCallback<T>(Region region, ResourceLocation phase, Object key, T callback,
+                                     @Nullable T filtered) {}
+
+    /**
+     * The changes a batch makes to one cell.
+     */
+    private static final class CellChanges<T> {
+        final Event.Batch<T> batch;
+        final boolean existing;
+        final List<Object> keys = new ArrayList<>();
+        final List<BoundingBox> partial = new ArrayList<>();
+        int whole = 0;
+
+        CellChanges(Event.Batch<T> batch, boolean existing) {
+            this.batch = batch;
+            this.existing = existing;
+        }
+    }
+
+    /**
+     * The region a callback was registered with.
+     *
+     * @param dimension the dimension the region is in.
+     * @param chunks    the chunks the region overlaps.
+     * @param box       the region's box, or {@code null} if the region is made of whole chunks.
+     * @param minY      the lowest buildable height of the box's level.
+     * @param maxY      the highest buildable height of the box's level.
+     */
+    private record Region(ResourceKey<Level> dimension, long[] chunks, @Nullable BoundingBox box, int minY,
+                          int maxY) {
+        /**
+         * Checks whether this region contains every position in the given chunk, so that its callback does not need
+         * to be filtered there.
+         */
+        boolean covers(long chunk) {
+            if (box == null) return true;
+
+            int minX = ChunkPos.getX(chunk) << 4;
+            int minZ = ChunkPos.getZ(chunk) << 4;
+            return box.minX() <= minX && box.maxX() >= minX + 15 && box.minZ() <= minZ && box.maxZ() >= minZ + 15 &&
+                coversHeight();
+        }
+
+        /**
+         * Checks whether this region contains every position in every chunk it overlaps.
+         */
+        boolean coversAll() {
+            if (box == null) return true;
+
+            return (box.minX() & 15) == 0 && (box.maxX() & 15) == 15 && (box.minZ() & 15) == 0 &&
+                (box.maxZ() & 15) == 15 && coversHeight();
+        }
+
+        private boolean coversHeight() {
+            return box != null && box.minY() <= minY && box.maxY() >= maxY;
+        }
+    }
+
+    /**
+     * The event holding the callbacks whose regions overlap a chunk.
+     * <p>
+     * The counts are guarded by the spatial event, but are published so that {@link #hasListeners(ResourceKey, BlockPos)}
+     * can read them without locking.
+     */
+    private static final class Cell<T> {
+        private static final BoundingBox[] NO_BOXES = new BoundingBox[0];
+
+        final Event<T> event;
+
+        /**
+         * The number of callbacks whose regions cover the whole chunk.
+         */
+        volatile int whole = 0;
+
+        /**
+         * The boxes of the callbacks that only partially cover the chunk.
+         */
+        volatile BoundingBox[] partial = NO_BOXES;
+
+        Cell(Event<T> event) {
+            this.event = event;
+        }
+
+        void addPartial(List<BoundingBox> boxes) {
+            BoundingBox[] partial = Arrays.copyOf(this.partial, this.partial.length + boxes.size());
+            for (int i = 0; i < boxes.size(); i++) {
+                partial[this.partial.length + i] = boxes.get(i);
+            }
+            this.partial = partial;
+        }
+
+        void removePartial(BoundingBox box) {
+            BoundingBox[] partial = this.partial;
+            for (int i = 0; i < partial.length; i++) {
+                if (partial[i] == box) {
+                    BoundingBox[] newPartial = Arrays.copyOf(partial, partial.length - 1);
+                    System.arraycopy(partial, i + 1, newPartial, i, partial.length - i - 1);
+                    this.partial = newPartial;
+                    return;
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return whole == 0 && partial.length == 0;
+        }
+    }
+}
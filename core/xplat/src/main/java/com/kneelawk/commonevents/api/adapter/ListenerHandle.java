@@ -59,4 +59,17 @@ public interface ListenerHandle {
      */
     <T> @Nullable T createCallback(Class<T> callbackClass, String singularMethodName, MethodType singularMethodType)
         throws Throwable;
+
+    /**
+     * Gets the static method this handle's listener calls, if any.
+     * <p>
+     * Listeners with a static target may be called directly by generated code instead of through the callback
+     * returned by {@link #createCallback(Class, String, MethodType)}, so the target must do exactly what that callback
+     * would do.
+     *
+     * @return the static method this handle's listener calls, or {@code null} if the listener is not a static method.
+     */
+    default @Nullable StaticListenerTarget getStaticTarget() {
+        return null;
+    }
 }
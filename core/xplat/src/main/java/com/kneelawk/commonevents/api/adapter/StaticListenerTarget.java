@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api.adapter;
+
+import org.objectweb.asm.Type;
+
+/**
+ * Describes a static method that a {@link ListenerHandle} calls, so that it can be called directly instead of through a
+ * callback instance.
+ *
+ * @param owner      the class that declares the listener method.
+ * @param name       the name of the listener method.
+ * @param descriptor the method descriptor of the listener method.
+ */
+public record StaticListenerTarget(Type owner, String name, Type descriptor) {
+}
@@ -96,15 +96,21 @@ public class PhaseData<T, P extends PhaseData<T, P>> {
 
     /**
      * Links two given phases together.
+     * <p>
+     * Linking two phases that are already linked does nothing.
      *
      * @param first  the phase that should be ordered first
      * @param second the phase that should be ordered second
      * @param <T>    the type of data held by the phases
      * @param <P>    this phase-data subclass
+     * @return {@code true} if the phases were linked, or {@code false} if they were already linked.
      */
-    public static <T, P extends PhaseData<T, P>> void link(P first, P second) {
+    public static <T, P extends PhaseData<T, P>> boolean link(P first, P second) {
+        if (first.subsequentPhases.contains(second)) return false;
+
         first.addSubsequentPhase(second);
         second.addPreviousPhase(first);
+        return true;
     }
 
     enum VisitStatus {
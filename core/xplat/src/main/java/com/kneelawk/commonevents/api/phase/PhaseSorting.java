@@ -26,6 +26,9 @@ import java.util.PriorityQueue;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
 import com.kneelawk.commonevents.impl.CELog;
 
 /**
@@ -51,13 +54,15 @@ public final class PhaseSorting {
      * @param sortedPhases the phases to sort
      * @param <T>          the type of data held in a phase
      * @param <P>          the type of the phase data
+     * @return {@code true} if the phases contain no cycles, meaning the sorted list can be updated incrementally with
+     * {@link #insertPhase(List, PhaseData)} and {@link #addOrdering(List, PhaseData, PhaseData)}.
      */
-    public static <T, P extends PhaseData<T, P>> void sortPhases(List<P> sortedPhases) {
+    public static <T, P extends PhaseData<T, P>> boolean sortPhases(List<P> sortedPhases) {
         // FIRST KOSARAJU SCC VISIT
         var topoSort = new ArrayList<P>(sortedPhases.size());
 
         for (var phase : sortedPhases) {
-            forwardVisit(phase, null, topoSort);
+            forwardVisit(phase, topoSort);
         }
 
         clearStatus(topoSort);
@@ -65,6 +70,7 @@ public final class PhaseSorting {
 
         // SECOND KOSARAJU SCC VISIT
         var phaseToScc = new IdentityHashMap<P, PhaseScc<T, P>>();
+        boolean acyclic = true;
 
         for (var phase : topoSort) {
             if (phase.visitStatus == PhaseData.VisitStatus.NOT_VISITED) {
@@ -79,6 +85,8 @@ public final class PhaseSorting {
                 for (var phaseInScc : sccPhases) {
                     phaseToScc.put(phaseInScc, scc);
                 }
+
+                if (sccPhases.size() > 1) acyclic = false;
             }
         }
 
@@ -123,26 +131,131 @@ public final class PhaseSorting {
                 }
             }
         }
+
+        return acyclic;
+    }
+
+    /**
+     * Inserts a new phase into an already sorted list of phases.
+     * <p>
+     * The new phase must not be linked to any other phases yet, and the list must not contain any cycles. The phase is
+     * inserted exactly where {@link #sortPhases(List)} would have put it, without re-sorting the rest of the list.
+     *
+     * @param sortedPhases the sorted phases to insert into
+     * @param phase        the new phase to insert
+     * @param <T>          the type of data held in a phase
+     * @param <P>          the type of the phase data
+     */
+    public static <T, P extends PhaseData<T, P>> void insertPhase(List<P> sortedPhases, P phase) {
+        // An unlinked phase is available from the start, so it is picked as soon as it has a lower id than the phase
+        // that would have been picked otherwise.
+        int index = 0;
+        int size = sortedPhases.size();
+        while (index < size && sortedPhases.get(index).name.compareTo(phase.name) < 0) {
+            index++;
+        }
+
+        sortedPhases.add(index, phase);
     }
 
-    private static <T, P extends PhaseData<T, P>> void forwardVisit(P phase, P parent, List<P> toposort) {
-        if (phase.visitStatus == PhaseData.VisitStatus.NOT_VISITED) {
-            // Not yet visited.
-            phase.visitStatus = PhaseData.VisitStatus.VISITING;
+    /**
+     * Updates an already sorted list of phases after a new link has been made between two phases in the list.
+     * <p>
+     * The list must not have contained any cycles before the link was made. If the first phase is already ordered
+     * before the second phase, nothing changes. Otherwise, only the phases from the second phase onward are re-sorted,
+     * as everything before the second phase would be picked in the same order either way. If the new link creates a
+     * cycle, this falls back to a full {@link #sortPhases(List)}.
+     * <p>
+     * The result is always exactly the same as what {@link #sortPhases(List)} would produce.
+     *
+     * @param sortedPhases the sorted phases to update
+     * @param first        the phase that was linked to be ordered first
+     * @param second       the phase that was linked to be ordered second
+     * @param <T>          the type of data held in a phase
+     * @param <P>          the type of the phase data
+     * @return {@code true} if the phases still contain no cycles.
+     */
+    public static <T, P extends PhaseData<T, P>> boolean addOrdering(List<P> sortedPhases, P first, P second) {
+        int firstIndex = sortedPhases.indexOf(first);
+        int secondIndex = sortedPhases.indexOf(second);
+        if (firstIndex < secondIndex) return true;
+
+        List<P> affected = sortedPhases.subList(secondIndex, sortedPhases.size());
+        var inDegrees = new Reference2IntOpenHashMap<P>(affected.size());
+        for (P phase : affected) {
+            inDegrees.put(phase, 0);
+        }
+        for (P phase : affected) {
+            for (P subsequentPhase : phase.subsequentPhases) {
+                inDegrees.computeIntIfPresent(subsequentPhase, (p, degree) -> degree + 1);
+            }
+        }
+
+        var pq = new PriorityQueue<P>(Comparator.comparing(p -> p.name));
+        for (P phase : affected) {
+            if (inDegrees.getInt(phase) == 0) pq.add(phase);
+        }
+
+        var resorted = new ArrayList<P>(affected.size());
+        while (!pq.isEmpty()) {
+            P phase = pq.poll();
+            resorted.add(phase);
 
-            for (var data : phase.subsequentPhases) {
-                forwardVisit(data, phase, toposort);
+            for (P subsequentPhase : phase.subsequentPhases) {
+                if (inDegrees.containsKey(subsequentPhase) && inDegrees.addTo(subsequentPhase, -1) == 1) {
+                    pq.add(subsequentPhase);
+                }
             }
+        }
+
+        if (resorted.size() < affected.size()) {
+            // The new link created a cycle.
+            return sortPhases(sortedPhases);
+        }
+
+        affected.clear();
+        sortedPhases.addAll(resorted);
+        return true;
+    }
+
+    private static <T, P extends PhaseData<T, P>> void forwardVisit(P root, List<P> toposort) {
+        if (root.visitStatus != PhaseData.VisitStatus.NOT_VISITED) return;
+
+        // Iterative depth-first search, so long chains of phases cannot overflow the stack.
+        var stack = new ArrayList<P>();
+        var nextChildren = new IntArrayList();
+        root.visitStatus = PhaseData.VisitStatus.VISITING;
+        stack.add(root);
+        nextChildren.add(0);
+
+        while (!stack.isEmpty()) {
+            int top = stack.size() - 1;
+            P phase = stack.get(top);
+            int nextChild = nextChildren.getInt(top);
+
+            if (nextChild < phase.subsequentPhases.size()) {
+                nextChildren.set(top, nextChild + 1);
+                P child = phase.subsequentPhases.get(nextChild);
 
-            toposort.add(phase);
-            phase.visitStatus = PhaseData.VisitStatus.VISITED;
-        } else if (phase.visitStatus == PhaseData.VisitStatus.VISITING && ENABLE_CYCLE_WARNING) {
-            // Already visiting, so we have found a cycle.
-            CELog.LOGGER.warn(String.format(
-                "Phase ordering conflict detected.%nPhase %s is ordered both before and after phase %s.",
-                phase.name,
-                parent.name
-            ));
+                if (child.visitStatus == PhaseData.VisitStatus.NOT_VISITED) {
+                    // Not yet visited.
+                    child.visitStatus = PhaseData.VisitStatus.VISITING;
+                    stack.add(child);
+                    nextChildren.add(0);
+                } else if (child.visitStatus == PhaseData.VisitStatus.VISITING && ENABLE_CYCLE_WARNING) {
+                    // Already visiting, so we have found a cycle.
+                    CELog.LOGGER.warn(String.format(
+                        "Phase ordering conflict detected.%nPhase %s is ordered both before and after phase %s.",
+                        child.name,
+                        phase.name
+                    ));
+                }
+            } else {
+                stack.remove(top);
+                nextChildren.removeInt(top);
+                toposort.add(phase);
+                phase.visitStatus = PhaseData.VisitStatus.VISITED;
+            }
         }
     }
 
@@ -152,13 +265,22 @@ public final class PhaseSorting {
         }
     }
 
-    private static <T, P extends PhaseData<T, P>> void backwardVisit(P phase, List<P> sccPhases) {
-        if (phase.visitStatus == PhaseData.VisitStatus.NOT_VISITED) {
-            phase.visitStatus = PhaseData.VisitStatus.VISITING;
+    private static <T, P extends PhaseData<T, P>> void backwardVisit(P root, List<P> sccPhases) {
+        if (root.visitStatus != PhaseData.VisitStatus.NOT_VISITED) return;
+
+        var stack = new ArrayList<P>();
+        root.visitStatus = PhaseData.VisitStatus.VISITING;
+        stack.add(root);
+
+        while (!stack.isEmpty()) {
+            P phase = stack.remove(stack.size() - 1);
             sccPhases.add(phase);
 
             for (var data : phase.previousPhases) {
-                backwardVisit(data, sccPhases);
+                if (data.visitStatus == PhaseData.VisitStatus.NOT_VISITED) {
+                    data.visitStatus = PhaseData.VisitStatus.VISITING;
+                    stack.add(data);
+                }
             }
         }
     }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api.phase;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Contract;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import net.minecraft.resources.ResourceLocation;
+
+import com.kneelawk.commonevents.impl.CommonEventsImpl;
+
+/**
+ * An immutable, shared list of phases that are invoked in order.
+ * <p>
+ * Phase templates are interned, so every call to {@link #of(ResourceLocation...)} with the same phases returns the same
+ * template. Events created with a template share its phase order instead of each building and sorting their own phase
+ * graph. An event only copies the template's phases into its own graph once an ordering is added to it that the
+ * template does not already imply.
+ */
+public final class PhaseTemplate {
+    private static final Map<List<ResourceLocation>, PhaseTemplate> INTERNED = new ConcurrentHashMap<>();
+
+    private final List<ResourceLocation> phases;
+    private final Object2IntMap<ResourceLocation> indices;
+
+    private PhaseTemplate(List<ResourceLocation> phases) {
+        this.phases = phases;
+
+        Object2IntOpenHashMap<ResourceLocation> indices = new Object2IntOpenHashMap<>(phases.size());
+        indices.defaultReturnValue(-1);
+        for (int i = 0; i < phases.size(); i++) {
+            indices.put(phases.get(i), i);
+        }
+        this.indices = indices;
+    }
+
+    /**
+     * Gets the phase template that invokes the given phases in order.
+     * <p>
+     * Each phase is ordered after the phase before it, the same as adding a phase ordering between each pair of
+     * consecutive phases.
+     *
+     * @param phases the phases, in the order they should be invoked.
+     * @return the interned phase template for the given phases.
+     */
+    public static PhaseTemplate of(ResourceLocation... phases) {
+        for (ResourceLocation phase : phases) {
+            Objects.requireNonNull(phase, "Tried to create a phase template with a null phase.");
+        }
+        CommonEventsImpl.ensureNoDuplicates(phases,
+            id -> new IllegalArgumentException("Duplicate event phase: " + id));
+
+        return INTERNED.computeIfAbsent(List.of(phases), PhaseTemplate::new);
+    }
+
+    /**
+     * {@return the phases of this template, in the order they are invoked}
+     */
+    @Contract(pure = true)
+    public List<ResourceLocation> getPhases() {
+        return this.phases;
+    }
+
+    /**
+     * Gets the position of the given phase in this template.
+     *
+     * @param phase the phase to look up.
+     * @return the index of the phase in {@link #getPhases()}, or {@code -1} if this template does not contain the
+     * phase.
+     */
+    @Contract(pure = true)
+    public int indexOf(ResourceLocation phase) {
+        return this.indices.getInt(phase);
+    }
+
+    /**
+     * Checks whether this template already orders one phase before another.
+     *
+     * @param first  the phase that should be ordered first.
+     * @param second the phase that should be ordered second.
+     * @return {@code true} if both phases are in this template and the first is invoked before the second.
+     */
+    @Contract(pure = true)
+    public boolean isOrdered(ResourceLocation first, ResourceLocation second) {
+        int firstIndex = this.indices.getInt(first);
+        return firstIndex >= 0 && firstIndex < this.indices.getInt(second);
+    }
+
+    @Override
+    public String toString() {
+        return "PhaseTemplate" + this.phases;
+    }
+}
@@ -27,6 +27,8 @@ public class CEConstants {
     
     public static final int SCAN_MULTI_THREAD_THRESHOLD = Integer.getInteger("com.kneelawk.common_events.scan_multi_thread_threshold", 5);
     public static final boolean EXPORT_GENERATED_CLASSES = Boolean.getBoolean("com.kneelawk.common_events.export_generated_classes");
+    public static final int SPECIALIZED_UNROLL_LIMIT = Integer.getInteger("com.kneelawk.common_events.specialized_unroll_limit", 64);
+    public static final int TIERED_THRESHOLD = Integer.getInteger("com.kneelawk.common_events.tiered_threshold", 10000);
 
     public static ResourceLocation rl(String path) {
         return ResourceLocation.fromNamespaceAndPath(MOD_ID, path);
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.event;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * Phase data for events with very large numbers of listeners that are frequently added and removed.
+ * <p>
+ * Listeners are stored in fixed-size chunks, so growing never copies existing listeners, and a hash index maps each
+ * key to its slot. Removing a listener leaves a hole in its slot, and holes are compacted away once they make up half
+ * of all slots. This gives amortized {@code O(1)} adds and removes while keeping registration order.
+ */
+public class ChunkedEventPhaseData<T> implements EventPhaseData<T> {
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MIN_COMPACT_HOLES = 16;
+
+    private final Class<?> callbackClass;
+    private final Object2IntOpenHashMap<Object> index = new Object2IntOpenHashMap<>();
+    private Object[][] callbackChunks = new Object[0][];
+    private Object[][] keyChunks = new Object[0][];
+    private int slots = 0;
+    private int holes = 0;
+    private T[] callbacks;
+
+    @SuppressWarnings("unchecked")
+    public ChunkedEventPhaseData(Class<?> callbackClass) {
+        this.callbackClass = callbackClass;
+        index.defaultReturnValue(-1);
+        callbacks = (T[]) Array.newInstance(callbackClass, 0);
+    }
+
+    @Override
+    public void addListener(Object key, T listener) {
+        if (index.containsKey(key)) throw new IllegalArgumentException("Listener key already registered: " + key);
+
+        int slot = slots++;
+        int chunk = slot >>> CHUNK_SHIFT;
+        if (chunk == callbackChunks.length) {
+            int newLength = Math.max(4, chunk * 2);
+            callbackChunks = Arrays.copyOf(callbackChunks, newLength);
+            keyChunks = Arrays.copyOf(keyChunks, newLength);
+        }
+        if (callbackChunks[chunk] == null) {
+            callbackChunks[chunk] = new Object[CHUNK_SIZE];
+            keyChunks[chunk] = new Object[CHUNK_SIZE];
+        }
+
+        callbackChunks[chunk][slot & CHUNK_MASK] = listener;
+        keyChunks[chunk][slot & CHUNK_MASK] = key;
+        index.put(key, slot);
+        callbacks = null;
+    }
+
+    @Override
+    public void addListeners(Object[] keys, T[] listeners) {
+        for (int i = 0; i < keys.length; i++) {
+            addListener(keys[i], listeners[i]);
+        }
+    }
+
+    @Override
+    public void removeListener(Object key) {
+        int slot = index.removeInt(key);
+        if (slot < 0) throw new IllegalArgumentException("No listener key: " + key);
+
+        callbackChunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK] = null;
+        keyChunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK] = null;
+        holes++;
+        callbacks = null;
+
+        if (holes >= MIN_COMPACT_HOLES && holes * 2 >= slots) {
+            compact();
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public void forEachKey(Consumer<Object> action) {
+        for (int slot = 0; slot < slots; slot++) {
+            Object key = keyChunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+            if (key != null) action.accept(key);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T[] getCallbacks() {
+        T[] callbacks = this.callbacks;
+        if (callbacks != null) return callbacks;
+
+        callbacks = (T[]) Array.newInstance(callbackClass, slots - holes);
+        if (holes == 0) {
+            for (int chunk = 0, copied = 0; copied < slots; chunk++) {
+                int length = Math.min(CHUNK_SIZE, slots - copied);
+                System.arraycopy(callbackChunks[chunk], 0, callbacks, copied, length);
+                copied += length;
+            }
+        } else {
+            int count = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                Object callback = callbackChunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+                if (callback != null) callbacks[count++] = (T) callback;
+            }
+        }
+
+        this.callbacks = callbacks;
+        return callbacks;
+    }
+
+    private void compact() {
+        int newSlots = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            Object callback = callbackChunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+            if (callback != null) {
+                if (slot != newSlots) {
+                    Object key = keyChunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+                    callbackChunks[newSlots >>> CHUNK_SHIFT][newSlots & CHUNK_MASK] = callback;
+                    keyChunks[newSlots >>> CHUNK_SHIFT][newSlots & CHUNK_MASK] = key;
+                    index.put(key, newSlots);
+                }
+                newSlots++;
+            }
+        }
+
+        // clear the now unused tail and release chunks that are entirely empty
+        for (int slot = newSlots; slot < slots; slot++) {
+            callbackChunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK] = null;
+            keyChunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK] = null;
+        }
+        int usedChunks = (newSlots + CHUNK_MASK) >>> CHUNK_SHIFT;
+        for (int chunk = usedChunks; chunk < callbackChunks.length; chunk++) {
+            callbackChunks[chunk] = null;
+            keyChunks[chunk] = null;
+        }
+
+        slots = newSlots;
+        holes = 0;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.event;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.asm.Type;
+
+import com.kneelawk.commonevents.api.EventKey;
+import com.kneelawk.commonevents.impl.CEConstants;
+
+/**
+ * Gives every {@link EventKey} a small, dense id, so that event buses can store their events in arrays indexed by id.
+ * <p>
+ * Keys for callback interface classes are cached per class, so looking them up by class neither allocates nor hashes
+ * a key.
+ */
+public final class EventKeyIndex {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final ConcurrentHashMap<EventKey, Integer> IDS = new ConcurrentHashMap<>();
+    private static final ClassValue<ClassKeys> CLASS_KEYS = new ClassValue<>() {
+        @Override
+        protected ClassKeys computeValue(Class<?> type) {
+            return new ClassKeys(Type.getType(type));
+        }
+    };
+
+    private EventKeyIndex() {}
+
+    /**
+     * An event key along with its id.
+     *
+     * @param key the event key.
+     * @param id  the key's id.
+     */
+    public record IndexedKey(EventKey key, int id) {}
+
+    /**
+     * Gets the id of the given event key, assigning it a new one if it does not have one yet.
+     *
+     * @param key the key to get the id of.
+     * @return the key's id.
+     */
+    public static int idOf(EventKey key) {
+        Integer id = IDS.get(key);
+        if (id != null) return id;
+        return IDS.computeIfAbsent(key, k -> NEXT_ID.getAndIncrement());
+    }
+
+    /**
+     * Gets the indexed key describing the given callback interface and qualifier.
+     *
+     * @param clazz     the callback interface.
+     * @param qualifier the qualifier.
+     * @return the indexed key.
+     * @throws NullPointerException if the qualifier is {@code null}.
+     */
+    public static IndexedKey get(Class<?> clazz, String qualifier) {
+        Objects.requireNonNull(clazz, "Tried to get the event key of a null callback interface.");
+        Objects.requireNonNull(qualifier,
+            "Tried to get an event key with a null qualifier. Use Event.DEFAULT_QUALIFIER for unqualified events.");
+        return CLASS_KEYS.get(clazz).get(qualifier);
+    }
+
+    private static IndexedKey index(EventKey key) {
+        return new IndexedKey(key, idOf(key));
+    }
+
+    private static final class ClassKeys {
+        private final Type type;
+        private final IndexedKey defaultKey;
+        private final ConcurrentHashMap<String, IndexedKey> qualifiedKeys = new ConcurrentHashMap<>();
+
+        private ClassKeys(Type type) {
+            this.type = type;
+            this.defaultKey = index(new EventKey(type, CEConstants.DEFAULT_QUALIFIER));
+        }
+
+        private IndexedKey get(String qualifier) {
+            if (CEConstants.DEFAULT_QUALIFIER.equals(qualifier)) return defaultKey;
+
+            IndexedKey key = qualifiedKeys.get(qualifier);
+            if (key != null) return key;
+            return qualifiedKeys.computeIfAbsent(qualifier, q -> index(new EventKey(type, q)));
+        }
+    }
+}
@@ -16,10 +16,18 @@
 
 package com.kneelawk.commonevents.impl.event;
 
+import java.util.function.Consumer;
+
 public interface EventPhaseData<T> {
     void addListener(Object key, T listener);
-    
+
+    void addListeners(Object[] keys, T[] listeners);
+
     void removeListener(Object key);
+
+    boolean containsKey(Object key);
+
+    void forEachKey(Consumer<Object> action);
     
     T[] getCallbacks();
 }
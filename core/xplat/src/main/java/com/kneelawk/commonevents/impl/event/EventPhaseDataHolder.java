@@ -16,6 +16,8 @@
 
 package com.kneelawk.commonevents.impl.event;
 
+import java.util.function.Consumer;
+
 import org.jetbrains.annotations.ApiStatus;
 
 import net.minecraft.resources.ResourceLocation;
@@ -24,16 +26,27 @@ import com.kneelawk.commonevents.api.phase.PhaseData;
 
 @ApiStatus.Internal
 public final class EventPhaseDataHolder<T> extends PhaseData<EventPhaseData<T>, EventPhaseDataHolder<T>> {
-    @SuppressWarnings("unchecked")
-    public EventPhaseDataHolder(ResourceLocation id, Class<?> listenerClass, boolean sorted) {
-        super(id, sorted ? new SortedEventPhaseData<>(listenerClass) : new UnsortedEventPhaseData<>(listenerClass));
+    public EventPhaseDataHolder(ResourceLocation id, Class<?> listenerClass, ListenerStorage storage) {
+        super(id, storage.create(listenerClass));
     }
 
     public void addListener(Object key, T listener) {
         this.data.addListener(key, listener);
     }
 
+    public void addListeners(Object[] keys, T[] listeners) {
+        this.data.addListeners(keys, listeners);
+    }
+
     public void removeListener(Object key) {
         this.data.removeListener(key);
     }
+
+    public boolean containsKey(Object key) {
+        return this.data.containsKey(key);
+    }
+
+    public void forEachKey(Consumer<Object> action) {
+        this.data.forEachKey(action);
+    }
 }
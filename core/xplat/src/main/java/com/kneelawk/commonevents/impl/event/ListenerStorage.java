@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.event;
+
+import java.util.function.Function;
+
+public enum ListenerStorage {
+    UNSORTED(UnsortedEventPhaseData::new),
+    SORTED(SortedEventPhaseData::new),
+    CHUNKED(ChunkedEventPhaseData::new);
+
+    private final Function<Class<?>, EventPhaseData<?>> factory;
+
+    ListenerStorage(Function<Class<?>, EventPhaseData<?>> factory) {
+        this.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> EventPhaseData<T> create(Class<?> callbackClass) {
+        return (EventPhaseData<T>) factory.apply(callbackClass);
+    }
+}
@@ -20,6 +20,7 @@ import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 public class SortedEventPhaseData<T> implements EventPhaseData<T> {
     private static final Comparator<Object> HASH_COMPARATOR = Comparator.comparingInt(Objects::hashCode);
@@ -36,21 +37,70 @@ public class SortedEventPhaseData<T> implements EventPhaseData<T> {
     @Override
     public void addListener(Object key, T listener) {
         int oldLength = callbacks.length;
-        callbacks = Arrays.copyOf(callbacks, oldLength + 1);
-        keys = Arrays.copyOf(keys, oldLength + 1);
-
-        if (oldLength == 0) {
-            callbacks[oldLength] = listener;
-            keys[oldLength] = key;
-        } else {
-            int index = -Arrays.binarySearch(keys, key, HASH_COMPARATOR) - 1;
-            if (index < 0) throw new IllegalArgumentException("Listener key already registered: " + key);
-
-            System.arraycopy(callbacks, index, callbacks, index + 1, oldLength - index);
-            System.arraycopy(keys, index, keys, index + 1, oldLength - index);
-            callbacks[index] = listener;
-            keys[index] = key;
+        int index = -Arrays.binarySearch(keys, 0, oldLength, key, HASH_COMPARATOR) - 1;
+        if (index < 0) throw new IllegalArgumentException("Listener key already registered: " + key);
+
+        T[] newCallbacks = Arrays.copyOf(callbacks, oldLength + 1);
+        Object[] newKeys = Arrays.copyOf(keys, oldLength + 1);
+
+        System.arraycopy(callbacks, index, newCallbacks, index + 1, oldLength - index);
+        System.arraycopy(keys, index, newKeys, index + 1, oldLength - index);
+        newCallbacks[index] = listener;
+        newKeys[index] = key;
+
+        callbacks = newCallbacks;
+        keys = newKeys;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void addListeners(Object[] keys, T[] listeners) {
+        int addedLength = keys.length;
+        if (addedLength == 0) return;
+
+        Integer[] order = new Integer[addedLength];
+        for (int i = 0; i < addedLength; i++) {
+            order[i] = i;
         }
+        Arrays.sort(order, Comparator.comparingInt(i -> Objects.hashCode(keys[i])));
+
+        int oldLength = callbacks.length;
+        T[] newCallbacks = (T[]) Array.newInstance(callbacks.getClass().getComponentType(), oldLength + addedLength);
+        Object[] newKeys = new Object[oldLength + addedLength];
+
+        // merge the already sorted existing listeners with the newly sorted listeners
+        int oldIndex = 0;
+        int addedIndex = 0;
+        int newIndex = 0;
+        while (oldIndex < oldLength || addedIndex < addedLength) {
+            if (addedIndex >= addedLength) {
+                newCallbacks[newIndex] = callbacks[oldIndex];
+                newKeys[newIndex++] = this.keys[oldIndex++];
+                continue;
+            }
+
+            Object addedKey = keys[order[addedIndex]];
+            Object lastKey = newIndex > 0 ? newKeys[newIndex - 1] : null;
+            if (newIndex > 0 && HASH_COMPARATOR.compare(lastKey, addedKey) == 0)
+                throw new IllegalArgumentException("Listener key already registered: " + addedKey);
+
+            if (oldIndex < oldLength) {
+                int cmp = HASH_COMPARATOR.compare(this.keys[oldIndex], addedKey);
+                if (cmp == 0) throw new IllegalArgumentException("Listener key already registered: " + addedKey);
+                if (cmp < 0) {
+                    newCallbacks[newIndex] = callbacks[oldIndex];
+                    newKeys[newIndex++] = this.keys[oldIndex++];
+                    continue;
+                }
+            }
+
+            newCallbacks[newIndex] = listeners[order[addedIndex]];
+            newKeys[newIndex++] = addedKey;
+            addedIndex++;
+        }
+
+        callbacks = newCallbacks;
+        this.keys = newKeys;
     }
 
     @Override
@@ -70,6 +120,19 @@ public class SortedEventPhaseData<T> implements EventPhaseData<T> {
         keys = newKeys;
     }
 
+    @Override
+    public boolean containsKey(Object key) {
+        int index = Arrays.binarySearch(keys, key, HASH_COMPARATOR);
+        return index >= 0 && Objects.equals(keys[index], key);
+    }
+
+    @Override
+    public void forEachKey(Consumer<Object> action) {
+        for (Object key : keys) {
+            action.accept(key);
+        }
+    }
+
     @Override
     public T[] getCallbacks() {
         return callbacks;
@@ -18,46 +18,106 @@ package com.kneelawk.commonevents.impl.event;
 
 import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.jetbrains.annotations.Nullable;
 
 public class UnsortedEventPhaseData<T> implements EventPhaseData<T> {
+    /**
+     * Phases with at most this many listeners are stored in plain arrays and searched linearly.
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
+    private final Class<?> callbackClass;
+    // Only used while there are few enough listeners that a linear search is cheap.
+    private Object @Nullable [] keys;
+    // Insertion-ordered, so callbacks keep their registration order while keys can still be found in constant time.
+    private @Nullable Map<Object, T> listeners;
     private T[] callbacks;
-    private Object[] keys;
 
     @SuppressWarnings("unchecked")
     public UnsortedEventPhaseData(Class<?> callbackClass) {
+        this.callbackClass = callbackClass;
+        keys = ArrayUtils.EMPTY_OBJECT_ARRAY;
         callbacks = (T[]) Array.newInstance(callbackClass, 0);
-        keys = new Object[0];
     }
 
     @Override
     public void addListener(Object key, T listener) {
-        int oldLength = callbacks.length;
-        callbacks = Arrays.copyOf(callbacks, oldLength + 1);
-        callbacks[oldLength] = listener;
-        keys = Arrays.copyOf(keys, oldLength + 1);
-        keys[oldLength] = key;
+        if (containsKey(key)) throw new IllegalArgumentException("Listener key already registered: " + key);
+
+        if (keys != null && keys.length < INDEX_THRESHOLD) {
+            int oldLength = keys.length;
+            callbacks = Arrays.copyOf(callbacks, oldLength + 1);
+            callbacks[oldLength] = listener;
+            keys = Arrays.copyOf(keys, oldLength + 1);
+            keys[oldLength] = key;
+        } else {
+            getIndex().put(key, listener);
+            callbacks = null;
+        }
+    }
+
+    @Override
+    public void addListeners(Object[] keys, T[] listeners) {
+        for (int i = 0; i < keys.length; i++) {
+            addListener(keys[i], listeners[i]);
+        }
     }
 
     @Override
     public void removeListener(Object key) {
-        int index = ArrayUtils.indexOf(keys, key);
-        if (index < 0) throw new IllegalArgumentException("No listener key: " + key);
-
-        T[] newCallbacks = Arrays.copyOf(callbacks, callbacks.length - 1);
-        Object[] newKeys = Arrays.copyOf(keys, keys.length - 1);
-        if (index < callbacks.length - 1) {
-            System.arraycopy(callbacks, index + 1, newCallbacks, index, newCallbacks.length - index);
-            System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+        if (keys != null) {
+            int index = ArrayUtils.indexOf(keys, key);
+            if (index < 0) throw new IllegalArgumentException("No listener key: " + key);
+
+            callbacks = ArrayUtils.remove(callbacks, index);
+            keys = ArrayUtils.remove(keys, index);
+        } else {
+            if (listeners.remove(key) == null) throw new IllegalArgumentException("No listener key: " + key);
+            callbacks = null;
         }
+    }
 
-        callbacks = newCallbacks;
-        keys = newKeys;
+    @Override
+    public boolean containsKey(Object key) {
+        if (keys != null) return ArrayUtils.contains(keys, key);
+        return listeners.containsKey(key);
     }
 
     @Override
+    public void forEachKey(Consumer<Object> action) {
+        if (keys != null) {
+            for (Object key : keys) {
+                action.accept(key);
+            }
+        } else {
+            listeners.keySet().forEach(action);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
     public T[] getCallbacks() {
+        T[] callbacks = this.callbacks;
+        if (callbacks == null) {
+            callbacks = listeners.values().toArray((T[]) Array.newInstance(callbackClass, listeners.size()));
+            this.callbacks = callbacks;
+        }
         return callbacks;
     }
+
+    private Map<Object, T> getIndex() {
+        if (listeners == null) {
+            listeners = new LinkedHashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                listeners.put(keys[i], callbacks[i]);
+            }
+            keys = null;
+        }
+        return listeners;
+    }
 }
@@ -17,11 +17,20 @@
 package com.kneelawk.commonevents.impl.gen;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
@@ -30,6 +39,10 @@ import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.GeneratorAdapter;
 import org.objectweb.asm.commons.Method;
 
+import com.kneelawk.commonevents.api.InvokerEngine;
+import com.kneelawk.commonevents.api.Reducer;
+import com.kneelawk.commonevents.api.ShortCircuit;
+import com.kneelawk.commonevents.api.adapter.StaticListenerTarget;
 import com.kneelawk.commonevents.api.adapter.util.AdapterUtils;
 import com.kneelawk.commonevents.impl.CEConstants;
 import com.kneelawk.commonevents.impl.CELog;
@@ -37,6 +50,19 @@ import com.kneelawk.commonevents.impl.Platform;
 
 public class ImplementationGenerator {
     private static final String PREFIX = "com.kneelawk.commonevents.impl.gen.impl.$CommonEvents_Generated$.";
+    private static final String TIERED_KIND = "tiered";
+    private static final String HANDLE_KIND = "handle";
+    /**
+     * The version of the contract between generated classes and the rest of Common Events. This must be increased
+     * whenever generated classes change in a way that classes precomputed by an older version would not work with,
+     * like changing the constructor of tiered classes, so that those are generated again instead of being loaded.
+     */
+    static final int GENERATOR_VERSION = 1;
+    /**
+     * Where precomputed classes are stored. This is not a package, so that mods shipping precomputed classes do not
+     * split the generated package between them, and so that only {@link Loader} ever defines them.
+     */
+    private static final String PRECOMPUTED_DIR = "META-INF/common-events/precomputed/v" + GENERATOR_VERSION + "/";
     private static final Handle LMF_HANDLE =
         new Handle(Opcodes.H_INVOKESTATIC, "java/lang/invoke/LambdaMetafactory", "metafactory", //
             "(" + //
@@ -48,6 +74,8 @@ public class ImplementationGenerator {
                 ")" + //
                 "Ljava/lang/invoke/CallSite;", //
             false);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String STATIC_BUNDLE_NAME = "com/kneelawk/commonevents/impl/gen/ImplementationGenerator$StaticBundle";
     private static final Loader LOADER =
         new Loader("event-implementation-generator", ImplementationGenerator.class.getClassLoader());
 
@@ -58,34 +86,264 @@ public class ImplementationGenerator {
 
         @Override
         protected Class<?> findClass(String name) throws ClassNotFoundException {
-            if (!name.startsWith(PREFIX)) throw new ClassNotFoundException(name);
+            GeneratedName generatedName = GeneratedName.parse(name);
+            String internalName = name.replace('.', '/');
 
-            String interfaceName = name.substring(PREFIX.length());
-            Class<?> interfaceClass = Class.forName(interfaceName);
+            // classes precomputed at build time ship in the same jar as the callback interface
+            byte[] bytes = findPrecomputed(generatedName.interfaceClass(), internalName);
+            if (bytes == null) {
+                bytes = generatedName.generate();
+                exportClass(internalName, bytes);
+            }
 
-            String internalName = name.replace('.', '/');
-            byte[] bytes = generateClass(Type.getObjectType(internalName), interfaceClass);
-
-            if (CEConstants.EXPORT_GENERATED_CLASSES) {
-                Path classPath =
-                    Platform.getInstance().getGameDirectory().resolve(".common-events/" + internalName + ".class");
-                try {
-                    Path parentPath = classPath.getParent();
-                    if (!Files.exists(parentPath)) {
-                        Files.createDirectories(parentPath);
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        private static byte @Nullable [] findPrecomputed(Class<?> interfaceClass, String internalName) {
+            ClassLoader loader = interfaceClass.getClassLoader();
+            if (loader == null) return null;
+
+            String interfacePath = interfaceClass.getName().replace('.', '/') + ".class";
+            String path = PRECOMPUTED_DIR + internalName + ".class";
+
+            try {
+                URL interfaceUrl = loader.getResource(interfacePath);
+                String root = interfaceUrl != null ? rootOf(interfaceUrl, interfacePath) : null;
+                if (root == null) return null;
+
+                // only trust classes shipped alongside the interface, as any jar could contain classes with this path
+                Enumeration<URL> urls = loader.getResources(path);
+                while (urls.hasMoreElements()) {
+                    URL url = urls.nextElement();
+                    if (root.equals(rootOf(url, path))) {
+                        try (InputStream is = url.openStream()) {
+                            return is.readAllBytes();
+                        }
                     }
-                    Files.write(classPath, bytes);
-                } catch (IOException e) {
-                    CELog.LOGGER.warn("[Common Events] Unable to write exported generated class to {}", classPath, e);
                 }
+
+                return null;
+            } catch (IOException e) {
+                CELog.LOGGER.warn("[Common Events] Unable to read precomputed class {}, generating it instead",
+                    internalName, e);
+                return null;
             }
+        }
 
-            return defineClass(name, bytes, 0, bytes.length);
+        /**
+         * Gets the jar or directory a resource was found in, as the part of its URL before its path.
+         */
+        private static @Nullable String rootOf(URL url, String path) {
+            String str = url.toString();
+            return str.endsWith(path) ? str.substring(0, str.length() - path.length()) : null;
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * The parts of a generated class's name.
+     * <p>
+     * Names look like {@code PREFIX + ["$" + kind + "." + [argument + "."]] + interfaceName}.
+     */
+    private record GeneratedName(String name, @Nullable String kind, @Nullable String argument,
+                                 Class<?> interfaceClass) {
+        static GeneratedName parse(String name) throws ClassNotFoundException {
+            if (!name.startsWith(PREFIX)) throw new ClassNotFoundException(name);
+
+            String interfaceName = name.substring(PREFIX.length());
+            String kind = null;
+            String argument = null;
+            if (interfaceName.startsWith("$")) {
+                int dot = interfaceName.indexOf('.');
+                if (dot < 0) throw new ClassNotFoundException(name);
+                kind = interfaceName.substring(1, dot);
+                interfaceName = interfaceName.substring(dot + 1);
+
+                if (ResultStrategy.hasArgument(kind)) {
+                    dot = interfaceName.indexOf('.');
+                    if (dot < 0) throw new ClassNotFoundException(name);
+                    argument = interfaceName.substring(0, dot);
+                    interfaceName = interfaceName.substring(dot + 1);
+                }
+            }
+
+            return new GeneratedName(name, kind, argument, Class.forName(interfaceName));
+        }
+
+        byte[] generate() throws ClassNotFoundException {
+            Type type = Type.getObjectType(name.replace('.', '/'));
+            if (TIERED_KIND.equals(kind)) return generateTieredClass(type, interfaceClass);
+            if (HANDLE_KIND.equals(kind)) return generateHandleClass(type, interfaceClass);
+
+            java.lang.reflect.Method interfaceMethod = AdapterUtils.getSingularMethod(interfaceClass);
+            if (interfaceMethod == null) throw new ClassNotFoundException(name);
+            ResultStrategy strategy = ResultStrategy.fromClassName(kind, argument, interfaceMethod.getReturnType());
+            if (strategy == null) throw new ClassNotFoundException(name);
+            return generateClass(type, interfaceClass, strategy);
+        }
+    }
+
+    /**
+     * Generates the bytes of the generated class with the given name, for shipping with the callback interface.
+     *
+     * @param name the generated class's name, without the common prefix of all generated classes. This is the
+     *             callback interface's name, optionally preceded by the kind of implementation, like
+     *             {@code $firstFalse.} or {@code $reduce.SUM_INT.}.
+     * @return the path the generated class should be stored at, relative to the jar's root, and its bytes.
+     * @throws ClassNotFoundException if the name does not describe a class that can be generated.
+     * @see ImplementationPrecomputer
+     */
+    static Map.Entry<String, byte[]> precompute(String name) throws ClassNotFoundException {
+        GeneratedName generatedName = GeneratedName.parse(PREFIX + name);
+        return Map.entry(PRECOMPUTED_DIR + generatedName.name().replace('.', '/') + ".class",
+            generatedName.generate());
+    }
+
     public static <T> Function<T[], T> defineSimple(Class<? super T> interfaceClass) {
+        return define(interfaceClass, ResultStrategy.DISCARD);
+    }
+
+    public static <T> Function<T[], T> defineSimple(Class<? super T> interfaceClass, InvokerEngine engine) {
+        return define(interfaceClass, ResultStrategy.DISCARD, engine);
+    }
+
+    public static <T> Function<T[], T> defineShortCircuit(Class<? super T> interfaceClass, ShortCircuit shortCircuit) {
+        return define(interfaceClass, ResultStrategy.shortCircuit(shortCircuit));
+    }
+
+    public static <T> Function<T[], T> defineShortCircuit(Class<? super T> interfaceClass, ShortCircuit shortCircuit,
+                                                          InvokerEngine engine) {
+        return define(interfaceClass, ResultStrategy.shortCircuit(shortCircuit), engine);
+    }
+
+    public static <T> Function<T[], T> defineReducing(Class<? super T> interfaceClass, Reducer reducer) {
+        return define(interfaceClass, ResultStrategy.reduce(reducer));
+    }
+
+    public static <T> Function<T[], T> defineReducing(Class<? super T> interfaceClass, Reducer reducer,
+                                                      InvokerEngine engine) {
+        return define(interfaceClass, ResultStrategy.reduce(reducer), engine);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Function<T[], T> define(Class<? super T> interfaceClass, ResultStrategy strategy) {
+        checkGenerated(interfaceClass, strategy);
+
+        try {
+            return (Function<T[], T>) LOADER.loadClass(PREFIX + strategy.getClassNamePart() + interfaceClass.getName())
+                .getConstructor().newInstance();
+        } catch (ClassNotFoundException | InvocationTargetException | InstantiationException | IllegalAccessException |
+                 NoSuchMethodException e) {
+            throw new RuntimeException(
+                "Unable to generate " + strategy + " implementation for " + interfaceClass.getName(), e);
+        }
+    }
+
+    private static <T> Function<T[], T> define(Class<? super T> interfaceClass, ResultStrategy strategy,
+                                               InvokerEngine engine) {
+        return switch (engine) {
+            case LOOP -> define(interfaceClass, strategy);
+            case SPECIALIZED ->
+                new SpecializedImplementation<>(interfaceClass, strategy, define(interfaceClass, strategy));
+            case TIERED -> {
+                Function<T[], T> loop = define(interfaceClass, strategy);
+                yield new TieredImplementation<>(defineTieredConstructor(interfaceClass), loop,
+                    new SpecializedImplementation<>(interfaceClass, strategy, loop), CEConstants.TIERED_THRESHOLD,
+                    null);
+            }
+            case METHOD_HANDLES -> new MethodHandleImplementation<>(interfaceClass, strategy);
+        };
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException} if a simple implementation cannot be generated for the given
+     * interface, without generating anything.
+     *
+     * @param interfaceClass the callback interface.
+     */
+    public static void checkSimple(Class<?> interfaceClass) {
+        checkGenerated(interfaceClass, ResultStrategy.DISCARD);
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException} if a short-circuit implementation cannot be generated for the given
+     * interface, without generating anything.
+     *
+     * @param interfaceClass the callback interface.
+     * @param shortCircuit   the short-circuit the implementation would use.
+     */
+    public static void checkShortCircuit(Class<?> interfaceClass, ShortCircuit shortCircuit) {
+        checkGenerated(interfaceClass, ResultStrategy.shortCircuit(shortCircuit));
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException} if a reducing implementation cannot be generated for the given
+     * interface, without generating anything.
+     *
+     * @param interfaceClass the callback interface.
+     * @param reducer        the reducer the implementation would use.
+     */
+    public static void checkReducing(Class<?> interfaceClass, Reducer reducer) {
+        checkGenerated(interfaceClass, ResultStrategy.reduce(reducer));
+    }
+
+    /**
+     * Defines a callback that calls each of the given static listener methods directly, in order.
+     * <p>
+     * The callback interface's singular method must return nothing, and every target must take exactly the same
+     * arguments as it.
+     *
+     * @param interfaceClass the callback interface.
+     * @param targets        the static listener methods to call.
+     * @return a callback instance implementing the callback interface.
+     */
+    public static Object defineStaticBundle(Class<?> interfaceClass, List<StaticListenerTarget> targets) {
+        Module module = ImplementationGenerator.class.getModule();
+        module.addReads(interfaceClass.getModule());
+
+        try {
+            for (StaticListenerTarget target : targets) {
+                module.addReads(Class.forName(target.owner().getClassName()).getModule());
+            }
+
+            byte[] bytes = generateStaticBundleClass(interfaceClass, targets);
+            exportClass(STATIC_BUNDLE_NAME, bytes);
+
+            MethodHandles.Lookup hidden = LOOKUP.defineHiddenClass(bytes, true);
+            return hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            throw new RuntimeException("Unable to generate static listener bundle for " + interfaceClass.getName(), e);
+        }
+    }
+
+    private static MethodHandle defineTieredConstructor(Class<?> interfaceClass) {
+        try {
+            Class<?> tieredClass = LOADER.loadClass(PREFIX + "$" + TIERED_KIND + "." + interfaceClass.getName());
+            return MethodHandles.publicLookup().findConstructor(tieredClass,
+                MethodType.methodType(void.class, interfaceClass, Runnable.class, int.class));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException("Unable to generate tiered implementation for " + interfaceClass.getName(), e);
+        }
+    }
+
+    /**
+     * Gets the constructor of the class that implements the given callback interface by calling a method handle,
+     * generating that class the first time it is needed.
+     *
+     * @param interfaceClass the callback interface.
+     * @return a handle to the constructor, taking the method handle to call and returning a callback instance.
+     */
+    static MethodHandle defineHandleConstructor(Class<?> interfaceClass) {
+        try {
+            Class<?> handleClass = LOADER.loadClass(PREFIX + "$" + HANDLE_KIND + "." + interfaceClass.getName());
+            return MethodHandles.publicLookup().findConstructor(handleClass,
+                MethodType.methodType(void.class, MethodHandle.class));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException("Unable to generate method handle implementation for " + interfaceClass.getName(),
+                e);
+        }
+    }
+
+    static java.lang.reflect.Method checkGenerated(Class<?> interfaceClass, ResultStrategy strategy) {
         if (!interfaceClass.isInterface())
             throw new IllegalArgumentException(interfaceClass.getName() + " is not a functional interface");
 
@@ -93,20 +351,28 @@ public class ImplementationGenerator {
         if (interfaceMethod == null)
             throw new IllegalArgumentException(interfaceClass.getName() + " is not a functional interface");
 
-        if (!Void.TYPE.equals(interfaceMethod.getReturnType())) throw new IllegalArgumentException(
-            interfaceClass.getName() +
-                " is not a simple functional interface. Simple functional interfaces must not return anything.");
+        strategy.checkReturnType(interfaceClass, interfaceMethod.getReturnType());
 
-        try {
-            return (Function<T[], T>) LOADER.loadClass(PREFIX + interfaceClass.getName()).getConstructor()
-                .newInstance();
-        } catch (ClassNotFoundException | InvocationTargetException | InstantiationException | IllegalAccessException |
-                 NoSuchMethodException e) {
-            throw new RuntimeException("Unable to generate simple implementation for " + interfaceClass.getName(), e);
+        return interfaceMethod;
+    }
+
+    static void exportClass(String internalName, byte[] bytes) {
+        if (CEConstants.EXPORT_GENERATED_CLASSES) {
+            Path classPath =
+                Platform.getInstance().getGameDirectory().resolve(".common-events/" + internalName + ".class");
+            try {
+                Path parentPath = classPath.getParent();
+                if (!Files.exists(parentPath)) {
+                    Files.createDirectories(parentPath);
+                }
+                Files.write(classPath, bytes);
+            } catch (IOException e) {
+                CELog.LOGGER.warn("[Common Events] Unable to write exported generated class to {}", classPath, e);
+            }
         }
     }
 
-    private static byte[] generateClass(Type name, Class<?> interfaceClass) {
+    private static byte[] generateClass(Type name, Class<?> interfaceClass, ResultStrategy strategy) {
         ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
 
         Type interfaceType = Type.getType(interfaceClass);
@@ -138,10 +404,35 @@ public class ImplementationGenerator {
         constructor.returnValue();
         constructor.endMethod();
 
-        Method lambdaMethodName =
-            new Method("lambda$apply$0", Type.VOID_TYPE, prefix(interfaceArrayType, interfaceMethodArgs));
+        Method lambdaMethodName = new Method("lambda$apply$0", interfaceMethodName.getReturnType(),
+            prefix(interfaceArrayType, interfaceMethodArgs));
+        Method emptyMethodName = new Method("lambda$apply$1", interfaceMethodName.getReturnType(), interfaceMethodArgs);
 
         GeneratorAdapter apply = new GeneratorAdapter(Opcodes.ACC_PUBLIC, applyMethodName, null, null, writer);
+
+        // no listeners: a non-capturing lambda, so every empty event of this type shares the same instance
+        Label notEmpty = apply.newLabel();
+        apply.loadArg(0);
+        apply.arrayLength();
+        apply.ifZCmp(GeneratorAdapter.NE, notEmpty);
+        apply.invokeDynamic(interfaceMethodName.getName(), Type.getMethodDescriptor(interfaceType), LMF_HANDLE,
+            interfaceMethodType, new Handle(Opcodes.H_INVOKESTATIC, name.getInternalName(), emptyMethodName.getName(),
+                emptyMethodName.getDescriptor(), false), interfaceMethodType);
+        apply.returnValue();
+
+        // a single listener: the listener already does everything its invoker would
+        Label multiple = apply.newLabel();
+        apply.visitLabel(notEmpty);
+        apply.loadArg(0);
+        apply.arrayLength();
+        apply.push(1);
+        apply.ifICmp(GeneratorAdapter.NE, multiple);
+        apply.loadArg(0);
+        apply.push(0);
+        apply.arrayLoad(interfaceType);
+        apply.returnValue();
+
+        apply.visitLabel(multiple);
         apply.loadArg(0);
         apply.invokeDynamic(interfaceMethodName.getName(), applyMethodName.getDescriptor(), LMF_HANDLE,
             interfaceMethodType, new Handle(Opcodes.H_INVOKESTATIC, name.getInternalName(), lambdaMethodName.getName(),
@@ -162,6 +453,7 @@ public class ImplementationGenerator {
         GeneratorAdapter lambda =
             new GeneratorAdapter(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, lambdaMethodName,
                 null, null, writer);
+        int resultLocal = strategy.begin(lambda);
         lambda.loadArg(0);
         lambda.arrayLength();
         int lenLocal = lambda.newLocal(Type.INT_TYPE);
@@ -185,14 +477,182 @@ public class ImplementationGenerator {
             lambda.loadArg(argIndex + 1);
         }
         lambda.invokeInterface(interfaceType, interfaceMethodName);
+        strategy.afterCall(lambda, resultLocal);
 
         lambda.iinc(iLocal, 1);
         lambda.goTo(loop);
 
         lambda.visitLabel(end);
+        strategy.end(lambda, resultLocal);
         lambda.returnValue();
         lambda.endMethod();
 
+        GeneratorAdapter empty =
+            new GeneratorAdapter(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, emptyMethodName,
+                null, null, writer);
+        strategy.end(empty, strategy.begin(empty));
+        empty.returnValue();
+        empty.endMethod();
+
+        return writer.toByteArray();
+    }
+
+    private static byte[] generateTieredClass(Type name, Class<?> interfaceClass) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type interfaceType = Type.getType(interfaceClass);
+        java.lang.reflect.Method interfaceMethod = AdapterUtils.getSingularMethod(interfaceClass);
+        assert interfaceMethod != null;
+        Method interfaceMethodName = Method.getMethod(interfaceMethod);
+
+        Type objectType = Type.getType(Object.class);
+        Type runnableType = Type.getType(Runnable.class);
+
+        writer.visit(AdapterUtils.JAVA_VERSION, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+            name.getInternalName(), null, objectType.getInternalName(),
+            new String[]{interfaceType.getInternalName()});
+
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "delegate", interfaceType.getDescriptor(), null,
+            null).visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "promote", runnableType.getDescriptor(), null, null)
+            .visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "threshold", "I", null, null).visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE, "count", "I", null, null).visitEnd();
+
+        Method initMethod = Method.getMethod("void <init> ()");
+        Method tieredInitMethod = new Method("<init>", Type.VOID_TYPE,
+            new Type[]{interfaceType, runnableType, Type.INT_TYPE});
+        GeneratorAdapter constructor =
+            new GeneratorAdapter(Opcodes.ACC_PUBLIC, tieredInitMethod, null, null, writer);
+        constructor.loadThis();
+        constructor.invokeConstructor(objectType, initMethod);
+        constructor.loadThis();
+        constructor.loadArg(0);
+        constructor.putField(name, "delegate", interfaceType);
+        constructor.loadThis();
+        constructor.loadArg(1);
+        constructor.putField(name, "promote", runnableType);
+        constructor.loadThis();
+        constructor.loadArg(2);
+        constructor.putField(name, "threshold", Type.INT_TYPE);
+        constructor.returnValue();
+        constructor.endMethod();
+
+        GeneratorAdapter invoke =
+            new GeneratorAdapter(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, interfaceMethodName, null, null, writer);
+        // the count is deliberately not synchronized, as the promotion only needs to happen roughly at the threshold
+        invoke.loadThis();
+        invoke.getField(name, "count", Type.INT_TYPE);
+        invoke.push(1);
+        invoke.math(GeneratorAdapter.ADD, Type.INT_TYPE);
+        invoke.dup();
+        int countLocal = invoke.newLocal(Type.INT_TYPE);
+        invoke.storeLocal(countLocal);
+        invoke.loadThis();
+        invoke.swap();
+        invoke.putField(name, "count", Type.INT_TYPE);
+
+        Label call = invoke.newLabel();
+        invoke.loadLocal(countLocal);
+        invoke.loadThis();
+        invoke.getField(name, "threshold", Type.INT_TYPE);
+        invoke.ifICmp(GeneratorAdapter.NE, call);
+        invoke.loadThis();
+        invoke.getField(name, "promote", runnableType);
+        invoke.invokeInterface(runnableType, Method.getMethod("void run ()"));
+
+        invoke.visitLabel(call);
+        invoke.loadThis();
+        invoke.getField(name, "delegate", interfaceType);
+        invoke.loadArgs();
+        invoke.invokeInterface(interfaceType, interfaceMethodName);
+        invoke.returnValue();
+        invoke.endMethod();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static byte[] generateHandleClass(Type name, Class<?> interfaceClass) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type interfaceType = Type.getType(interfaceClass);
+        java.lang.reflect.Method interfaceMethod = AdapterUtils.getSingularMethod(interfaceClass);
+        assert interfaceMethod != null;
+        Method interfaceMethodName = Method.getMethod(interfaceMethod);
+
+        Type objectType = Type.getType(Object.class);
+        Type handleType = Type.getType(MethodHandle.class);
+
+        writer.visit(AdapterUtils.JAVA_VERSION, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+            name.getInternalName(), null, objectType.getInternalName(),
+            new String[]{interfaceType.getInternalName()});
+
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "handle", handleType.getDescriptor(), null, null)
+            .visitEnd();
+
+        Method initMethod = Method.getMethod("void <init> ()");
+        Method handleInitMethod = new Method("<init>", Type.VOID_TYPE, new Type[]{handleType});
+        GeneratorAdapter constructor = new GeneratorAdapter(Opcodes.ACC_PUBLIC, handleInitMethod, null, null, writer);
+        constructor.loadThis();
+        constructor.invokeConstructor(objectType, initMethod);
+        constructor.loadThis();
+        constructor.loadArg(0);
+        constructor.putField(name, "handle", handleType);
+        constructor.returnValue();
+        constructor.endMethod();
+
+        GeneratorAdapter invoke =
+            new GeneratorAdapter(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, interfaceMethodName, null, null, writer);
+        // invokeExact is signature-polymorphic, so the arguments are passed as-is, without boxing them into an array
+        invoke.loadThis();
+        invoke.getField(name, "handle", handleType);
+        invoke.loadArgs();
+        invoke.invokeVirtual(handleType, new Method("invokeExact", interfaceMethodName.getDescriptor()));
+        invoke.returnValue();
+        invoke.endMethod();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static byte[] generateStaticBundleClass(Class<?> interfaceClass, List<StaticListenerTarget> targets) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type interfaceType = Type.getType(interfaceClass);
+        java.lang.reflect.Method interfaceMethod = AdapterUtils.getSingularMethod(interfaceClass);
+        assert interfaceMethod != null;
+        Method interfaceMethodName = Method.getMethod(interfaceMethod);
+
+        Type objectType = Type.getType(Object.class);
+
+        writer.visit(AdapterUtils.JAVA_VERSION, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+            STATIC_BUNDLE_NAME, null, objectType.getInternalName(), new String[]{interfaceType.getInternalName()});
+
+        Method initMethod = Method.getMethod("void <init> ()");
+        GeneratorAdapter constructor = new GeneratorAdapter(Opcodes.ACC_PUBLIC, initMethod, null, null, writer);
+        constructor.loadThis();
+        constructor.invokeConstructor(objectType, initMethod);
+        constructor.returnValue();
+        constructor.endMethod();
+
+        GeneratorAdapter invoke =
+            new GeneratorAdapter(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, interfaceMethodName, null, null, writer);
+        for (StaticListenerTarget target : targets) {
+            invoke.loadArgs();
+            invoke.invokeStatic(target.owner(), new Method(target.name(), target.descriptor().getDescriptor()));
+            // the callback interface returns nothing, so whatever the listener returns is discarded
+            Type returnType = target.descriptor().getReturnType();
+            if (returnType.getSize() == 2) {
+                invoke.pop2();
+            } else if (returnType.getSize() == 1) {
+                invoke.pop();
+            }
+        }
+        invoke.returnValue();
+        invoke.endMethod();
+
+        writer.visitEnd();
         return writer.toByteArray();
     }
 
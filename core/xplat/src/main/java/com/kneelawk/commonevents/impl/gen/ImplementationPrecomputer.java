@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.gen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Build-time tool that generates event implementation classes ahead of time, so they can be shipped in a mod's jar
+ * instead of being generated when their events are first created.
+ * <p>
+ * Usage: {@code ImplementationPrecomputer <output directory> <name>...}, where each name is a callback interface's
+ * fully qualified name, optionally preceded by the kind of implementation, like {@code $firstFalse.} or
+ * {@code $reduce.SUM_INT.}. The callback interfaces must be on the classpath. Generated classes are written under
+ * {@code META-INF/common-events/precomputed/v<version>/} in the output directory, which should be one of the mod's
+ * resources directories, so that they end up in the same jar as their callback interfaces. Precomputed classes are
+ * only loaded from the jar containing their callback interface.
+ * <p>
+ * Precomputed classes must be regenerated whenever their callback interfaces change. Classes precomputed by a version
+ * of Common Events with a different generator version are ignored and generated at runtime instead.
+ */
+public final class ImplementationPrecomputer {
+    private ImplementationPrecomputer() {}
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length < 1) {
+            System.err.println("Usage: ImplementationPrecomputer <output directory> <name>...");
+            System.exit(1);
+        }
+
+        Path outputDir = Path.of(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            Map.Entry<String, byte[]> generated = ImplementationGenerator.precompute(args[i]);
+
+            Path classPath = outputDir.resolve(generated.getKey());
+            Files.createDirectories(classPath.getParent());
+            Files.write(classPath, generated.getValue());
+        }
+    }
+}
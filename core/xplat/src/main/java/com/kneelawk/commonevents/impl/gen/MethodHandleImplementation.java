@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.gen;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Function;
+
+/**
+ * Builds invokers by composing handles to each listener with method handle combinators, and wrapping the result in an
+ * instance of a small generated class that calls it.
+ * <p>
+ * Unlike the other implementations, this only ever generates one class per callback interface, which is shared by every
+ * invoker of that interface, no matter its listeners or result strategy. That class calls the composed handle with
+ * {@link MethodHandle#invokeExact}, so arguments are not boxed.
+ *
+ * @param <T> the callback interface type.
+ */
+class MethodHandleImplementation<T> implements Function<T[], T> {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final ResultStrategy strategy;
+    private final MethodHandle interfaceMethod;
+    private final MethodType methodType;
+    private final MethodHandle constructor;
+    private final T emptyInvoker;
+
+    MethodHandleImplementation(Class<? super T> interfaceClass, ResultStrategy strategy) {
+        this.strategy = strategy;
+
+        // the handles are looked up from this module, but need to be able to call the callback interface
+        MethodHandleImplementation.class.getModule().addReads(interfaceClass.getModule());
+
+        try {
+            this.interfaceMethod = LOOKUP.unreflect(ImplementationGenerator.checkGenerated(interfaceClass, strategy));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(
+                "Unable to create method handle implementation for " + interfaceClass.getName(), e);
+        }
+        this.methodType = this.interfaceMethod.type().dropParameterTypes(0, 1);
+        this.constructor = ImplementationGenerator.defineHandleConstructor(interfaceClass);
+        this.emptyInvoker = wrap(strategy.compose(new MethodHandle[0], methodType));
+    }
+
+    @Override
+    public T apply(T[] callbacks) {
+        if (callbacks.length == 0) return emptyInvoker;
+        if (callbacks.length == 1) return callbacks[0];
+
+        MethodHandle[] listeners = new MethodHandle[callbacks.length];
+        for (int i = 0; i < callbacks.length; i++) {
+            listeners[i] = interfaceMethod.bindTo(callbacks[i]);
+        }
+
+        return wrap(strategy.compose(listeners, methodType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T wrap(MethodHandle handle) {
+        try {
+            return (T) constructor.invoke(handle);
+        } catch (Throwable e) {
+            throw new RuntimeException("Unable to create method handle invoker", e);
+        }
+    }
+}
@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.gen;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.GeneratorAdapter;
+import org.objectweb.asm.commons.Method;
+
+import com.kneelawk.commonevents.api.Reducer;
+import com.kneelawk.commonevents.api.ShortCircuit;
+
+/**
+ * Describes how generated invokers turn the results of their listeners into the result of the event.
+ * <p>
+ * Generated invokers call {@link #begin(GeneratorAdapter)} once, {@link #afterCall(GeneratorAdapter, int)} after each
+ * listener call with that listener's result on the stack, and {@link #end(GeneratorAdapter, int)} once all listeners
+ * have been called, before returning.
+ * <p>
+ * Invokers built from method handle combinators instead use {@link #compose(MethodHandle[], MethodType)}.
+ */
+abstract sealed class ResultStrategy {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String FIRST_FALSE_KIND = "firstFalse";
+    private static final String FIRST_TRUE_KIND = "firstTrue";
+    private static final String FIRST_NON_NULL_KIND = "firstNonNull";
+    private static final String FIRST_NOT_KIND = "firstNot";
+    private static final String REDUCE_KIND = "reduce";
+
+    /**
+     * Listeners return nothing.
+     */
+    static final ResultStrategy DISCARD = new Discard();
+
+    static ResultStrategy shortCircuit(ShortCircuit shortCircuit) {
+        return new ShortCircuiting(shortCircuit);
+    }
+
+    static ResultStrategy reduce(Reducer reducer) {
+        return new Reducing(reducer);
+    }
+
+    /**
+     * Checks whether the given generated-class kind is followed by an argument in generated class names.
+     */
+    static boolean hasArgument(String kind) {
+        return FIRST_NOT_KIND.equals(kind) || REDUCE_KIND.equals(kind);
+    }
+
+    /**
+     * Recreates the strategy described by the kind and argument of a generated class name.
+     *
+     * @return the described strategy, or {@code null} if the kind is unknown.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static @Nullable ResultStrategy fromClassName(@Nullable String kind, @Nullable String argument,
+                                                  Class<?> returnType) {
+        if (kind == null) return DISCARD;
+
+        try {
+            return switch (kind) {
+                case FIRST_FALSE_KIND -> shortCircuit(ShortCircuit.firstFalse());
+                case FIRST_TRUE_KIND -> shortCircuit(ShortCircuit.firstTrue());
+                case FIRST_NON_NULL_KIND -> shortCircuit(ShortCircuit.firstNonNull());
+                case FIRST_NOT_KIND -> returnType.isEnum() && argument != null ?
+                    shortCircuit(ShortCircuit.firstNot(Enum.valueOf((Class) returnType, argument))) : null;
+                case REDUCE_KIND -> argument != null ? reduce(Reducer.valueOf(argument)) : null;
+                default -> null;
+            };
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@return the part of generated class names that describes this strategy, either empty or ending in a dot}
+     */
+    abstract String getClassNamePart();
+
+    /**
+     * Throws an {@link IllegalArgumentException} if the callback interface's singular method does not return the
+     * right kind of result for this strategy.
+     */
+    abstract void checkReturnType(Class<?> interfaceClass, Class<?> returnType);
+
+    /**
+     * Makes sure the given module can access any classes the generated code references.
+     */
+    void addReads(Module module) {}
+
+    /**
+     * Emits code run before the first listener is called.
+     *
+     * @return a local variable index to be passed to the other methods, or {@code -1}.
+     */
+    int begin(GeneratorAdapter method) {
+        return -1;
+    }
+
+    /**
+     * Emits code handling a listener's result on top of the stack. This must either return or consume the result.
+     */
+    abstract void afterCall(GeneratorAdapter method, int local);
+
+    /**
+     * Emits code pushing the event's result after every listener has been called.
+     */
+    abstract void end(GeneratorAdapter method, int local);
+
+    /**
+     * Combines the given listener handles into a single handle of the same type that calls them in order.
+     *
+     * @param listeners the listeners' handles, each with the callback interface's singular method's type, without a
+     *                  receiver.
+     * @param type      the callback interface's singular method's type, without a receiver.
+     * @return the combined handle.
+     */
+    abstract MethodHandle compose(MethodHandle[] listeners, MethodType type);
+
+    private static MethodHandle findStatic(Class<?> owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(owner, name, type);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException("Unable to find " + owner.getName() + "." + name + type, e);
+        }
+    }
+
+    /**
+     * {@return a handle of the given type that ignores its arguments and returns the given value}
+     */
+    private static MethodHandle constant(MethodType type, @Nullable Object value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(type.returnType(), value), 0, type.parameterList());
+    }
+
+    private static final class Discard extends ResultStrategy {
+        @Override
+        String getClassNamePart() {
+            return "";
+        }
+
+        @Override
+        void checkReturnType(Class<?> interfaceClass, Class<?> returnType) {
+            if (!Void.TYPE.equals(returnType)) throw new IllegalArgumentException(interfaceClass.getName() +
+                " is not a simple functional interface. Simple functional interfaces must not return anything.");
+        }
+
+        @Override
+        void afterCall(GeneratorAdapter method, int local) {}
+
+        @Override
+        void end(GeneratorAdapter method, int local) {}
+
+        @Override
+        MethodHandle compose(MethodHandle[] listeners, MethodType type) {
+            MethodHandle chain = MethodHandles.empty(type);
+            for (int i = listeners.length - 1; i >= 0; i--) {
+                chain = MethodHandles.foldArguments(chain, listeners[i]);
+            }
+            return chain;
+        }
+
+        @Override
+        public String toString() {
+            return "simple";
+        }
+    }
+
+    private static final class ShortCircuiting extends ResultStrategy {
+        private static final MethodHandle IS_NULL =
+            findStatic(ShortCircuiting.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+        private static final MethodHandle IS_SAME =
+            findStatic(ShortCircuiting.class, "isSame", MethodType.methodType(boolean.class, Object.class, Object.class));
+
+        private final ShortCircuit shortCircuit;
+
+        private ShortCircuiting(ShortCircuit shortCircuit) {
+            this.shortCircuit = shortCircuit;
+        }
+
+        @Override
+        String getClassNamePart() {
+            return switch (shortCircuit) {
+                case ShortCircuit.FirstFalse ignored -> "$" + FIRST_FALSE_KIND + ".";
+                case ShortCircuit.FirstTrue ignored -> "$" + FIRST_TRUE_KIND + ".";
+                case ShortCircuit.FirstNonNull ignored -> "$" + FIRST_NON_NULL_KIND + ".";
+                case ShortCircuit.FirstNot(Enum<?> sentinel) -> "$" + FIRST_NOT_KIND + "." + sentinel.name() + ".";
+            };
+        }
+
+        @Override
+        void checkReturnType(Class<?> interfaceClass, Class<?> returnType) {
+            switch (shortCircuit) {
+                case ShortCircuit.FirstFalse ignored -> checkBoolean(interfaceClass, returnType);
+                case ShortCircuit.FirstTrue ignored -> checkBoolean(interfaceClass, returnType);
+                case ShortCircuit.FirstNonNull ignored -> {
+                    if (returnType.isPrimitive()) throw new IllegalArgumentException(interfaceClass.getName() +
+                        " cannot be used with " + shortCircuit + ". Its singular method must return an object.");
+                }
+                case ShortCircuit.FirstNot(Enum<?> sentinel) -> {
+                    if (!sentinel.getDeclaringClass().equals(returnType)) throw new IllegalArgumentException(
+                        interfaceClass.getName() + " cannot be used with " + shortCircuit +
+                            ". Its singular method must return " + sentinel.getDeclaringClass().getName() + ".");
+                }
+            }
+        }
+
+        private void checkBoolean(Class<?> interfaceClass, Class<?> returnType) {
+            if (!Boolean.TYPE.equals(returnType)) throw new IllegalArgumentException(interfaceClass.getName() +
+                " cannot be used with " + shortCircuit + ". Its singular method must return boolean.");
+        }
+
+        @Override
+        void addReads(Module module) {
+            if (shortCircuit instanceof ShortCircuit.FirstNot(Enum<?> sentinel)) {
+                module.addReads(sentinel.getDeclaringClass().getModule());
+            }
+        }
+
+        @Override
+        void afterCall(GeneratorAdapter method, int local) {
+            // return the result if it decides the result of the event, otherwise pop it and continue
+            Label next = method.newLabel();
+            switch (shortCircuit) {
+                case ShortCircuit.FirstFalse ignored -> {
+                    method.ifZCmp(GeneratorAdapter.NE, next);
+                    method.push(false);
+                    method.returnValue();
+                }
+                case ShortCircuit.FirstTrue ignored -> {
+                    method.ifZCmp(GeneratorAdapter.EQ, next);
+                    method.push(true);
+                    method.returnValue();
+                }
+                case ShortCircuit.FirstNonNull ignored -> {
+                    Label pop = method.newLabel();
+                    method.dup();
+                    method.ifNull(pop);
+                    method.returnValue();
+                    method.visitLabel(pop);
+                    method.pop();
+                }
+                case ShortCircuit.FirstNot(Enum<?> sentinel) -> {
+                    Label pop = method.newLabel();
+                    method.dup();
+                    pushSentinel(method, sentinel);
+                    method.ifCmp(Type.getType(Object.class), GeneratorAdapter.EQ, pop);
+                    method.returnValue();
+                    method.visitLabel(pop);
+                    method.pop();
+                }
+            }
+            method.visitLabel(next);
+        }
+
+        @Override
+        void end(GeneratorAdapter method, int local) {
+            switch (shortCircuit) {
+                case ShortCircuit.FirstFalse ignored -> method.push(true);
+                case ShortCircuit.FirstTrue ignored -> method.push(false);
+                case ShortCircuit.FirstNonNull ignored -> method.visitInsn(Opcodes.ACONST_NULL);
+                case ShortCircuit.FirstNot(Enum<?> sentinel) -> pushSentinel(method, sentinel);
+            }
+        }
+
+        private static void pushSentinel(GeneratorAdapter method, Enum<?> sentinel) {
+            Type enumType = Type.getType(sentinel.getDeclaringClass());
+            method.getStatic(enumType, sentinel.name(), enumType);
+        }
+
+        @Override
+        MethodHandle compose(MethodHandle[] listeners, MethodType type) {
+            MethodHandle chain = switch (shortCircuit) {
+                case ShortCircuit.FirstFalse ignored -> constant(type, true);
+                case ShortCircuit.FirstTrue ignored -> constant(type, false);
+                case ShortCircuit.FirstNonNull ignored -> constant(type, null);
+                case ShortCircuit.FirstNot(Enum<?> sentinel) -> constant(type, sentinel);
+            };
+
+            for (int i = listeners.length - 1; i >= 0; i--) {
+                MethodHandle listener = listeners[i];
+                chain = switch (shortCircuit) {
+                    case ShortCircuit.FirstFalse ignored ->
+                        MethodHandles.guardWithTest(listener, chain, constant(type, false));
+                    case ShortCircuit.FirstTrue ignored ->
+                        MethodHandles.guardWithTest(listener, constant(type, true), chain);
+                    case ShortCircuit.FirstNonNull ignored -> continueIf(IS_NULL, listener, chain, type);
+                    case ShortCircuit.FirstNot(Enum<?> sentinel) ->
+                        continueIf(IS_SAME.bindTo(sentinel), listener, chain, type);
+                };
+            }
+
+            return chain;
+        }
+
+        /**
+         * Calls the listener, then continues on to the rest of the chain if the test accepts the listener's result, or
+         * returns the result otherwise.
+         */
+        private static MethodHandle continueIf(MethodHandle test, MethodHandle listener, MethodHandle rest,
+                                               MethodType type) {
+            Class<?> returnType = type.returnType();
+            MethodHandle decide =
+                MethodHandles.guardWithTest(test.asType(MethodType.methodType(boolean.class, returnType)),
+                    MethodHandles.dropArguments(rest, 0, returnType),
+                    MethodHandles.dropArguments(MethodHandles.identity(returnType), 1, type.parameterList()));
+            return MethodHandles.foldArguments(decide, listener);
+        }
+
+        private static boolean isNull(@Nullable Object result) {
+            return result == null;
+        }
+
+        private static boolean isSame(Object sentinel, @Nullable Object result) {
+            return result == sentinel;
+        }
+
+        @Override
+        public String toString() {
+            return shortCircuit.toString();
+        }
+    }
+
+    private static final class Reducing extends ResultStrategy {
+        private static final Type MATH_TYPE = Type.getType(Math.class);
+
+        private final Reducer reducer;
+        private final Type type;
+
+        private Reducing(Reducer reducer) {
+            this.reducer = reducer;
+            this.type = Type.getType(reducer.getResultType());
+        }
+
+        @Override
+        String getClassNamePart() {
+            return "$" + REDUCE_KIND + "." + reducer.name() + ".";
+        }
+
+        @Override
+        void checkReturnType(Class<?> interfaceClass, Class<?> returnType) {
+            if (!reducer.getResultType().equals(returnType)) throw new IllegalArgumentException(
+                interfaceClass.getName() + " cannot be used with " + reducer + ". Its singular method must return " +
+                    reducer.getResultType().getName() + ".");
+        }
+
+        /**
+         * {@return the reducer's identity, boxed}
+         * <p>
+         * Starting from the identity means no listeners need special handling, and no listeners return the identity.
+         */
+        private Object identity() {
+            return switch (reducer) {
+                case SUM_INT, OR_INT -> 0;
+                case SUM_LONG, OR_LONG -> 0L;
+                // -0.0 is the identity of floating-point addition, 0.0 + -0.0 would be 0.0
+                case SUM_FLOAT -> -0.0f;
+                case SUM_DOUBLE -> -0.0;
+                case MIN_INT -> Integer.MAX_VALUE;
+                case MIN_LONG -> Long.MAX_VALUE;
+                case MIN_FLOAT -> Float.POSITIVE_INFINITY;
+                case MIN_DOUBLE -> Double.POSITIVE_INFINITY;
+                case MAX_INT -> Integer.MIN_VALUE;
+                case MAX_LONG -> Long.MIN_VALUE;
+                case MAX_FLOAT -> Float.NEGATIVE_INFINITY;
+                case MAX_DOUBLE -> Double.NEGATIVE_INFINITY;
+                case AND_INT -> -1;
+                case AND_LONG -> -1L;
+            };
+        }
+
+        @Override
+        int begin(GeneratorAdapter method) {
+            switch (identity()) {
+                case Integer i -> method.push(i);
+                case Long l -> method.push(l);
+                case Float f -> method.push(f);
+                case Double d -> method.push(d);
+                default -> throw new AssertionError("Unexpected identity type for " + reducer);
+            }
+
+            int local = method.newLocal(type);
+            method.storeLocal(local);
+            return local;
+        }
+
+        @Override
+        void afterCall(GeneratorAdapter method, int local) {
+            method.loadLocal(local);
+            switch (reducer.getOperation()) {
+                case SUM -> method.math(GeneratorAdapter.ADD, type);
+                case MIN -> method.invokeStatic(MATH_TYPE, new Method("min", type, new Type[]{type, type}));
+                case MAX -> method.invokeStatic(MATH_TYPE, new Method("max", type, new Type[]{type, type}));
+                case OR -> method.math(GeneratorAdapter.OR, type);
+                case AND -> method.math(GeneratorAdapter.AND, type);
+            }
+            method.storeLocal(local);
+        }
+
+        @Override
+        void end(GeneratorAdapter method, int local) {
+            method.loadLocal(local);
+        }
+
+        @Override
+        MethodHandle compose(MethodHandle[] listeners, MethodType type) {
+            Class<?> resultType = reducer.getResultType();
+            MethodType combineType = MethodType.methodType(resultType, resultType, resultType);
+            MethodHandle combine = switch (reducer.getOperation()) {
+                case SUM -> findStatic(MethodType.methodType(resultType).wrap().returnType(), "sum", combineType);
+                case MIN -> findStatic(Math.class, "min", combineType);
+                case MAX -> findStatic(Math.class, "max", combineType);
+                case OR -> findStatic(Reducing.class, "or", combineType);
+                case AND -> findStatic(Reducing.class, "and", combineType);
+            };
+
+            // the chain takes the result so far, followed by the listeners' arguments
+            MethodHandle chain =
+                MethodHandles.dropArguments(MethodHandles.identity(resultType), 1, type.parameterList());
+            for (int i = listeners.length - 1; i >= 0; i--) {
+                MethodHandle step = MethodHandles.collectArguments(combine, 1, listeners[i]);
+                chain = MethodHandles.foldArguments(MethodHandles.dropArguments(chain, 1, resultType), step);
+            }
+
+            return MethodHandles.insertArguments(chain, 0, identity());
+        }
+
+        private static int or(int a, int b) {
+            return a | b;
+        }
+
+        private static long or(long a, long b) {
+            return a | b;
+        }
+
+        private static int and(int a, int b) {
+            return a & b;
+        }
+
+        private static long and(long a, long b) {
+            return a & b;
+        }
+
+        @Override
+        public String toString() {
+            return reducer.toString();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.gen;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.GeneratorAdapter;
+import org.objectweb.asm.commons.Method;
+
+import com.kneelawk.commonevents.api.adapter.util.AdapterUtils;
+import com.kneelawk.commonevents.impl.CEConstants;
+
+/**
+ * Builds invokers that are hidden classes implementing the callback interface directly, with each listener loaded as a
+ * constant from the hidden class's class data and called from its own call site.
+ * <p>
+ * The generated bytecode only depends on the number of listeners, so it is generated once per listener count and reused
+ * for every new set of listeners. Hidden classes are defined without {@code STRONG}, so superseded invokers can be
+ * unloaded as soon as nothing references them.
+ *
+ * @param <T> the callback interface type.
+ */
+class SpecializedImplementation<T> implements Function<T[], T> {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String INVOKER_NAME = "com/kneelawk/commonevents/impl/gen/SpecializedImplementation$Invoker";
+    private static final Handle CLASS_DATA_AT_HANDLE =
+        new Handle(Opcodes.H_INVOKESTATIC, "java/lang/invoke/MethodHandles", "classDataAt", //
+            "(" + //
+                "Ljava/lang/invoke/MethodHandles$Lookup;" + //
+                "Ljava/lang/String;" + //
+                "Ljava/lang/Class;" + //
+                "I" + //
+                ")" + //
+                "Ljava/lang/Object;", //
+            false);
+
+    private final Class<? super T> interfaceClass;
+    private final ResultStrategy strategy;
+    private final Function<T[], T> fallback;
+    private final Type interfaceType;
+    private final Method interfaceMethod;
+    private final AtomicReferenceArray<byte[]> classBytes;
+
+    SpecializedImplementation(Class<? super T> interfaceClass, ResultStrategy strategy, Function<T[], T> fallback) {
+        this.interfaceClass = interfaceClass;
+        this.strategy = strategy;
+        this.fallback = fallback;
+        this.interfaceType = Type.getType(interfaceClass);
+        this.interfaceMethod = Method.getMethod(ImplementationGenerator.checkGenerated(interfaceClass, strategy));
+        this.classBytes = new AtomicReferenceArray<>(CEConstants.SPECIALIZED_UNROLL_LIMIT + 1);
+
+        // the hidden classes live in this module, but need to be able to call the callback interface
+        SpecializedImplementation.class.getModule().addReads(interfaceClass.getModule());
+        strategy.addReads(SpecializedImplementation.class.getModule());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T apply(T[] callbacks) {
+        if (callbacks.length == 1) return callbacks[0];
+        if (callbacks.length == 0 || callbacks.length > CEConstants.SPECIALIZED_UNROLL_LIMIT) {
+            return fallback.apply(callbacks);
+        }
+
+        byte[] bytes = classBytes.get(callbacks.length);
+        if (bytes == null) {
+            bytes = generateClass(callbacks.length);
+            classBytes.set(callbacks.length, bytes);
+            ImplementationGenerator.exportClass(INVOKER_NAME + "$" + callbacks.length, bytes);
+        }
+
+        try {
+            MethodHandles.Lookup hidden = LOOKUP.defineHiddenClassWithClassData(bytes, List.of(callbacks), true);
+            return (T) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            throw new RuntimeException("Unable to generate specialized implementation for " + interfaceClass.getName(),
+                e);
+        }
+    }
+
+    private byte[] generateClass(int listenerCount) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type objectType = Type.getType(Object.class);
+
+        writer.visit(AdapterUtils.JAVA_VERSION, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+            INVOKER_NAME, null, objectType.getInternalName(), new String[]{interfaceType.getInternalName()});
+
+        Method initMethod = Method.getMethod("void <init> ()");
+        GeneratorAdapter constructor = new GeneratorAdapter(Opcodes.ACC_PUBLIC, initMethod, null, null, writer);
+        constructor.loadThis();
+        constructor.invokeConstructor(objectType, initMethod);
+        constructor.returnValue();
+        constructor.endMethod();
+
+        GeneratorAdapter invoke =
+            new GeneratorAdapter(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, interfaceMethod, null, null, writer);
+        int resultLocal = strategy.begin(invoke);
+        for (int i = 0; i < listenerCount; i++) {
+            // each listener is its own constant, so each call site only ever sees one receiver class
+            invoke.visitLdcInsn(
+                new ConstantDynamic("_", interfaceType.getDescriptor(), CLASS_DATA_AT_HANDLE, i));
+            invoke.loadArgs();
+            invoke.invokeInterface(interfaceType, interfaceMethod);
+            strategy.afterCall(invoke, resultLocal);
+        }
+        strategy.end(invoke, resultLocal);
+        invoke.returnValue();
+        invoke.endMethod();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.gen;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.kneelawk.commonevents.impl.CEConstants;
+import com.kneelawk.commonevents.impl.CELog;
+
+/**
+ * Builds invokers that start out as a cheap loop and count their dispatches. Once an invoker has been called
+ * {@code threshold} times, it asks its event to replace it with a {@link SpecializedImplementation specialized}
+ * invoker for the same listeners.
+ * <p>
+ * Specialized invokers are defined on a background thread, so the call that reaches the threshold does not pay for
+ * defining a class, and cannot fail because of it. If specializing fails, the failure is logged once, and the event
+ * keeps using loop invokers from then on.
+ * <p>
+ * Events must call {@link #apply(Object[], Consumer)} to receive promotions. Plain {@link #apply(Object[])} only ever
+ * returns the loop.
+ *
+ * @param <T> the callback interface type.
+ */
+public final class TieredImplementation<T> implements Function<T[], T> {
+    private static final Executor PROMOTION_EXECUTOR =
+        new ThreadPoolExecutor(0, 1, 2, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "Common Events Invoker Promotion");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final MethodHandle coldConstructor;
+    private final Function<T[], T> loop;
+    private final Function<T[], T> specialized;
+    private final int threshold;
+    private final @Nullable T emptyImplementation;
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+
+    TieredImplementation(MethodHandle coldConstructor, Function<T[], T> loop, Function<T[], T> specialized,
+                         int threshold, @Nullable T emptyImplementation) {
+        this.coldConstructor = coldConstructor;
+        this.loop = loop;
+        this.specialized = specialized;
+        this.threshold = threshold;
+        this.emptyImplementation = emptyImplementation;
+    }
+
+    /**
+     * Creates a copy of this implementation that gets promoted after the given number of dispatches.
+     *
+     * @param threshold the number of dispatches after which invokers get specialized.
+     * @return the new implementation.
+     */
+    public TieredImplementation<T> withThreshold(int threshold) {
+        return new TieredImplementation<>(coldConstructor, loop, specialized, threshold, emptyImplementation);
+    }
+
+    /**
+     * Creates a copy of this implementation that uses the given invoker when there are no listeners.
+     *
+     * @param emptyImplementation the invoker to use when there are no listeners.
+     * @return the new implementation.
+     */
+    public TieredImplementation<T> withEmptyImplementation(T emptyImplementation) {
+        return new TieredImplementation<>(coldConstructor, loop, specialized, threshold, emptyImplementation);
+    }
+
+    @Override
+    public T apply(T[] callbacks) {
+        return switch (callbacks.length) {
+            case 0 -> emptyImplementation != null ? emptyImplementation : loop.apply(callbacks);
+            case 1 -> callbacks[0];
+            default -> loop.apply(callbacks);
+        };
+    }
+
+    /**
+     * Creates a cold invoker for the given listeners.
+     *
+     * @param callbacks the listeners to call. Must not be modified afterward.
+     * @param promote   called with the specialized invoker once the cold invoker has been called often enough.
+     * @return the cold invoker.
+     */
+    @SuppressWarnings("unchecked")
+    public T apply(T[] callbacks, Consumer<? super T> promote) {
+        // single listeners are already as fast as they can be, and invokers too big to unroll would never be promoted
+        if (callbacks.length < 2 || callbacks.length > CEConstants.SPECIALIZED_UNROLL_LIMIT || failed.get()) {
+            return apply(callbacks);
+        }
+
+        T cold = loop.apply(callbacks);
+        Runnable promotion = () -> PROMOTION_EXECUTOR.execute(() -> specialize(callbacks, promote));
+
+        try {
+            return (T) coldConstructor.invoke(cold, promotion, threshold);
+        } catch (Throwable e) {
+            throw new RuntimeException("Unable to create tiered invoker", e);
+        }
+    }
+
+    private void specialize(T[] callbacks, Consumer<? super T> promote) {
+        if (failed.get()) return;
+
+        T promoted;
+        try {
+            promoted = specialized.apply(callbacks);
+        } catch (Throwable e) {
+            // whatever went wrong is likely to go wrong again, so stick with the loop
+            if (failed.compareAndSet(false, true)) {
+                CELog.LOGGER.warn("[Common Events] Unable to specialize invoker for {}, keeping the loop invoker",
+                    callbacks.getClass().getComponentType().getName(), e);
+            }
+            return;
+        }
+
+        promote.accept(promoted);
+    }
+}
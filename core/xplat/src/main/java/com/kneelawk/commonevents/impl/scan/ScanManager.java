@@ -26,6 +26,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -48,12 +49,14 @@ import com.kneelawk.commonevents.api.EventBus;
 import com.kneelawk.commonevents.api.EventKey;
 import com.kneelawk.commonevents.api.adapter.BusEventHandle;
 import com.kneelawk.commonevents.api.adapter.ListenerHandle;
+import com.kneelawk.commonevents.api.adapter.StaticListenerTarget;
 import com.kneelawk.commonevents.api.adapter.mod.ModFileHolder;
 import com.kneelawk.commonevents.api.adapter.scan.ScanResult;
 import com.kneelawk.commonevents.api.adapter.util.AdapterUtils;
 import com.kneelawk.commonevents.impl.CEConstants;
 import com.kneelawk.commonevents.impl.CELog;
 import com.kneelawk.commonevents.impl.Platform;
+import com.kneelawk.commonevents.impl.gen.ImplementationGenerator;
 
 public class ScanManager {
     private static final String EVENTS_JSON_PATH = "common-events.json";
@@ -101,18 +104,85 @@ public class ScanManager {
 
         List<ListenerHandle> listeners = scannedListeners.get(event.getKey());
         if (listeners != null) {
+            Event.Batch<Object> batch = ((Event<Object>) event).batch();
+
+            // Runs of static listeners in the same phase are called directly from a single generated callback, as long
+            // as the callback interface returns nothing. A run ends when a listener that can't be called directly is
+            // registered to the same phase, so that the order within each phase stays the same.
+            boolean bundle = Void.TYPE.equals(singularMethod.getReturnType());
+            Map<ResourceLocation, List<ListenerHandle>> runs = new LinkedHashMap<>();
+
             for (ListenerHandle handle : listeners) {
-                try {
-                    Object callback = handle.createCallback(type, singularMethodName, singularMethodType);
-                    if (callback != null) {
-                        ((Event<Object>) event).register(handle.getPhase(), callback);
-                    }
-                } catch (Exception e) {
-                    CELog.LOGGER.error("[Common Events] Error creating callback instance for {}", handle, e);
-                } catch (Throwable e) {
-                    throw new Error(e);
+                if (bundle && canCallDirectly(handle, singularMethodType)) {
+                    runs.computeIfAbsent(handle.getPhase(), phase -> new ArrayList<>()).add(handle);
+                    continue;
                 }
+
+                List<ListenerHandle> run = runs.remove(handle.getPhase());
+                if (run != null) registerRun(batch, type, run, singularMethodName, singularMethodType);
+                registerCallback(batch, type, handle, singularMethodName, singularMethodType);
+            }
+
+            for (List<ListenerHandle> run : runs.values()) {
+                registerRun(batch, type, run, singularMethodName, singularMethodType);
+            }
+
+            batch.commit();
+        }
+    }
+
+    private static boolean canCallDirectly(ListenerHandle handle, MethodType singularMethodType) {
+        StaticListenerTarget target = handle.getStaticTarget();
+        if (target == null) return false;
+
+        try {
+            MethodType targetType = AdapterUtils.getMethodType(target.descriptor());
+            // generated code can't adapt arguments like the lambda metafactory can
+            if (!targetType.parameterList().equals(singularMethodType.parameterList())) return false;
+
+            // this initializes the listener class just like creating its callback would
+            Class<?> ownerClass = Class.forName(target.owner().getClassName());
+            AdapterUtils.LOOKUP.findStatic(ownerClass, target.name(), targetType);
+            return true;
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            // creating the callback normally will report the problem
+            return false;
+        }
+    }
+
+    private static void registerRun(Event.Batch<Object> batch, Class<?> type, List<ListenerHandle> run,
+                                    String singularMethodName, MethodType singularMethodType) {
+        if (run.size() > 1) {
+            List<StaticListenerTarget> targets = new ArrayList<>(run.size());
+            for (ListenerHandle handle : run) {
+                targets.add(handle.getStaticTarget());
+            }
+
+            try {
+                batch.register(run.get(0).getPhase(), ImplementationGenerator.defineStaticBundle(type, targets));
+                return;
+            } catch (Exception e) {
+                CELog.LOGGER.warn("[Common Events] Error generating direct callback for {}, falling back to separate " +
+                    "callbacks", run, e);
+            }
+        }
+
+        for (ListenerHandle handle : run) {
+            registerCallback(batch, type, handle, singularMethodName, singularMethodType);
+        }
+    }
+
+    private static void registerCallback(Event.Batch<Object> batch, Class<?> type, ListenerHandle handle,
+                                         String singularMethodName, MethodType singularMethodType) {
+        try {
+            Object callback = handle.createCallback(type, singularMethodName, singularMethodType);
+            if (callback != null) {
+                batch.register(handle.getPhase(), callback);
             }
+        } catch (Exception e) {
+            CELog.LOGGER.error("[Common Events] Error creating callback instance for {}", handle, e);
+        } catch (Throwable e) {
+            throw new Error(e);
         }
     }
 
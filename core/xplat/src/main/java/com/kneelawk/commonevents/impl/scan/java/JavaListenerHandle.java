@@ -26,6 +26,7 @@ import org.objectweb.asm.Type;
 import net.minecraft.resources.ResourceLocation;
 
 import com.kneelawk.commonevents.api.adapter.ListenerHandle;
+import com.kneelawk.commonevents.api.adapter.StaticListenerTarget;
 import com.kneelawk.commonevents.api.EventKey;
 import com.kneelawk.commonevents.api.adapter.util.AdapterUtils;
 import com.kneelawk.commonevents.impl.CELog;
@@ -79,6 +80,11 @@ public class JavaListenerHandle implements ListenerHandle {
             .invoke());
     }
 
+    @Override
+    public @NotNull StaticListenerTarget getStaticTarget() {
+        return new StaticListenerTarget(listenerClass, methodName, methodDescriptor);
+    }
+
     @Override
     public String toString() {
         return "JavaListenerHandle{" + key + "(" + phase + ") -> " +
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.resources.ResourceLocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventStorageTest {
+    private static final ResourceLocation EARLY = ResourceLocation.fromNamespaceAndPath("common_events_test", "early");
+
+    interface Callback {
+        void onEvent(List<String> out);
+    }
+
+    /**
+     * A key that collides with every other key of its kind, but is only equal to itself.
+     */
+    private record CollidingKey(String name) {
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    private static Event.Builder<Callback> builder() {
+        return Event.<Callback>builder(Callback.class, callbacks -> out -> {
+            for (Callback callback : callbacks) {
+                callback.onEvent(out);
+            }
+        }).scanned(false);
+    }
+
+    private static Callback adding(String value) {
+        return out -> out.add(value);
+    }
+
+    private static List<String> fire(Event<Callback> event) {
+        List<String> out = new ArrayList<>();
+        event.invoker().onEvent(out);
+        return out;
+    }
+
+    @Test
+    void churnStorageMatchesDefaultStorage() {
+        Random random = new Random(0);
+        Event<Callback> reference = builder().build();
+        Event<Callback> chunked = builder().optimizeChurn(true).build();
+        Event<Callback> lazyChunked = builder().optimizeChurn(true).lazyRebuild(true).build();
+        List<String> registered = new ArrayList<>();
+
+        for (int op = 0; op < 5_000; op++) {
+            if (registered.isEmpty() || random.nextInt(10) < 6) {
+                String key = "k" + op;
+                ResourceLocation phase = random.nextBoolean() ? EARLY : Event.DEFAULT_PHASE;
+                for (Event<Callback> event : List.of(reference, chunked, lazyChunked)) {
+                    event.registerKeyed(phase, key, adding(key));
+                }
+                registered.add(key);
+            } else {
+                String key = registered.remove(random.nextInt(registered.size()));
+                for (Event<Callback> event : List.of(reference, chunked, lazyChunked)) {
+                    event.unregister(key);
+                }
+            }
+
+            if (op == 100) {
+                for (Event<Callback> event : List.of(reference, chunked, lazyChunked)) {
+                    event.addPhaseOrdering(EARLY, Event.DEFAULT_PHASE);
+                }
+            }
+
+            if (op % 53 == 0) {
+                List<String> expected = fire(reference);
+                assertEquals(expected, fire(chunked));
+                assertEquals(expected, fire(lazyChunked));
+            }
+        }
+    }
+
+    @Test
+    void duplicateKeysInBatchOnlyRegisterFirst() {
+        for (Event<Callback> event : List.of(builder().build(), builder().optimizeRemoval(true).build(),
+            builder().optimizeChurn(true).build())) {
+            event.registerKeyed("a", adding("a"));
+
+            event.batch()
+                .registerKeyed("a", adding("a2"))
+                .registerKeyed("b", adding("b"))
+                .registerKeyed(EARLY, "b", adding("b2"))
+                .registerKeyed("c", adding("c"))
+                .commit();
+
+            assertEquals(Set.of("a", "b", "c"), new HashSet<>(fire(event)));
+            assertFalse(event.isRegistered("b2"));
+        }
+    }
+
+    @Test
+    void batchFailurePartwayKeepsAppliedChanges() {
+        // sorted storage tells keys apart by hash code, so it rejects keys that only collide with existing ones
+        Event<Callback> event = builder().optimizeRemoval(true).build();
+        event.registerKeyed("removed", adding("removed"));
+        event.registerKeyed(EARLY, new CollidingKey("existing"), adding("existing"));
+
+        Event.Batch<Callback> batch = event.batch()
+            .unregister("removed")
+            .registerKeyed("default", adding("default"))
+            .registerKeyed(EARLY, new CollidingKey("colliding"), adding("colliding"));
+        assertThrows(IllegalArgumentException.class, batch::commit);
+
+        // the removal and the phase staged before the rejected one were applied, and the invoker reflects them
+        assertFalse(event.isRegistered("removed"));
+        assertTrue(event.isRegistered("default"));
+        assertFalse(event.isRegistered(new CollidingKey("colliding")));
+        assertEquals(Set.of("existing", "default"), new HashSet<>(fire(event)));
+
+        // the event is still usable afterward
+        event.registerKeyed(EARLY, "early", adding("early"));
+        assertEquals(Set.of("existing", "default", "early"), new HashSet<>(fire(event)));
+    }
+}
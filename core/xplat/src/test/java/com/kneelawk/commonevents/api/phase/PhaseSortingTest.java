@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.api.phase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.resources.ResourceLocation;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhaseSortingTest {
+    private static final class TestPhase extends PhaseData<Void, TestPhase> {
+        /**
+         * Where this phase would usually be ordered, so that random orderings do not immediately create cycles.
+         */
+        final int rank;
+
+        TestPhase(String name) {
+            this(name, 0);
+        }
+
+        TestPhase(String name, int rank) {
+            super(ResourceLocation.fromNamespaceAndPath("common_events_test", name), null);
+            this.rank = rank;
+        }
+
+        @Override
+        public String toString() {
+            return getName().getPath();
+        }
+    }
+
+    private boolean cycleWarning;
+
+    @BeforeEach
+    void disableCycleWarning() {
+        // some of these tests create cycles on purpose
+        cycleWarning = PhaseSorting.ENABLE_CYCLE_WARNING;
+        PhaseSorting.ENABLE_CYCLE_WARNING = false;
+    }
+
+    @AfterEach
+    void restoreCycleWarning() {
+        PhaseSorting.ENABLE_CYCLE_WARNING = cycleWarning;
+    }
+
+    @Test
+    void incrementalSortMatchesFullSort() {
+        for (long seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            List<TestPhase> phases = new ArrayList<>();
+            boolean acyclic = true;
+
+            for (int op = 0; op < 200; op++) {
+                if (phases.size() < 2 || random.nextInt(3) == 0) {
+                    TestPhase phase = new TestPhase("p" + random.nextInt(1_000_000), random.nextInt(1000));
+                    if (phases.stream().anyMatch(p -> p.getName().equals(phase.getName()))) continue;
+
+                    if (acyclic) {
+                        PhaseSorting.insertPhase(phases, phase);
+                    } else {
+                        phases.add(phase);
+                        PhaseSorting.sortPhases(phases);
+                    }
+                } else {
+                    TestPhase first = randomPhase(random, phases);
+                    TestPhase second = randomPhase(random, phases);
+                    if (first == second) continue;
+                    // orderings mostly follow the phases' ranks, so most runs stay acyclic for a long time
+                    if (first.rank > second.rank && random.nextInt(20) != 0) {
+                        TestPhase swap = first;
+                        first = second;
+                        second = swap;
+                    }
+
+                    if (!PhaseData.link(first, second)) continue;
+                    acyclic = acyclic ? PhaseSorting.addOrdering(phases, first, second) :
+                        PhaseSorting.sortPhases(phases);
+                }
+
+                List<TestPhase> expected = new ArrayList<>(phases);
+                Collections.shuffle(expected, random);
+                boolean expectedAcyclic = PhaseSorting.sortPhases(expected);
+                assertEquals(expected, phases, "Seed " + seed + ", operation " + op);
+                assertEquals(expectedAcyclic, acyclic, "Seed " + seed + ", operation " + op);
+            }
+        }
+    }
+
+    @Test
+    void orderingThatCreatesCycleFallsBackToFullSort() {
+        TestPhase a = new TestPhase("a");
+        TestPhase b = new TestPhase("b");
+        TestPhase c = new TestPhase("c");
+        TestPhase d = new TestPhase("d");
+        List<TestPhase> phases = new ArrayList<>();
+        for (TestPhase phase : List.of(d, c, b, a)) {
+            PhaseSorting.insertPhase(phases, phase);
+        }
+        assertEquals(List.of(a, b, c, d), phases);
+
+        PhaseData.link(c, b);
+        assertTrue(PhaseSorting.addOrdering(phases, c, b));
+        assertEquals(List.of(a, c, b, d), phases);
+
+        PhaseData.link(b, c);
+        assertFalse(PhaseSorting.addOrdering(phases, b, c));
+
+        List<TestPhase> expected = new ArrayList<>(List.of(d, c, b, a));
+        PhaseSorting.sortPhases(expected);
+        assertEquals(expected, phases);
+    }
+
+    @Test
+    void orderingAlreadySatisfiedChangesNothing() {
+        TestPhase a = new TestPhase("a");
+        TestPhase b = new TestPhase("b");
+        List<TestPhase> phases = new ArrayList<>(List.of(a, b));
+
+        PhaseData.link(a, b);
+        assertTrue(PhaseSorting.addOrdering(phases, a, b));
+        assertEquals(List.of(a, b), phases);
+    }
+
+    @Test
+    void duplicateLinksAreIgnored() {
+        TestPhase a = new TestPhase("a");
+        TestPhase b = new TestPhase("b");
+
+        assertTrue(PhaseData.link(a, b));
+        assertFalse(PhaseData.link(a, b));
+        assertEquals(1, a.subsequentPhases.size());
+        assertEquals(1, b.previousPhases.size());
+    }
+
+    @Test
+    void longChainsDoNotOverflowTheStack() {
+        List<TestPhase> phases = new ArrayList<>();
+        TestPhase previous = null;
+        // named in reverse order, so the sort has to follow the links instead of the names
+        for (int i = 100_000; i > 0; i--) {
+            TestPhase phase = new TestPhase(String.format("p%06d", i));
+            if (previous != null) PhaseData.link(previous, phase);
+            phases.add(phase);
+            previous = phase;
+        }
+        List<TestPhase> chain = new ArrayList<>(phases);
+        Collections.reverse(phases);
+
+        assertDoesNotThrow(() -> PhaseSorting.sortPhases(phases));
+        assertEquals(chain, phases);
+    }
+
+    private static TestPhase randomPhase(Random random, List<TestPhase> phases) {
+        return phases.get(random.nextInt(phases.size()));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2024 Cyan Kneelawk.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kneelawk.commonevents.impl.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedEventPhaseDataTest {
+    /**
+     * A key that collides with every other key of its kind, but is only equal to itself.
+     */
+    private record CollidingKey(String name) {
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+
+    @Test
+    void churnMatchesReferenceList() {
+        for (long seed = 0; seed < 4; seed++) {
+            Random random = new Random(seed);
+            ChunkedEventPhaseData<String> data = new ChunkedEventPhaseData<>(String.class);
+            // re-adding a removed key appends it, so an insertion-ordered map behaves exactly like the phase data
+            Map<Object, String> reference = new LinkedHashMap<>();
+            List<Object> registered = new ArrayList<>();
+
+            for (int op = 0; op < 20_000; op++) {
+                // grow for a while, then shrink, so compaction happens repeatedly in both directions
+                boolean growing = (op / 2_500) % 2 == 0;
+                if (registered.isEmpty() || random.nextInt(10) < (growing ? 7 : 3)) {
+                    Object key = random.nextInt(20) == 0 ? new CollidingKey("k" + op) : "k" + op;
+                    data.addListener(key, "v" + op);
+                    reference.put(key, "v" + op);
+                    registered.add(key);
+                } else {
+                    Object key = registered.remove(random.nextInt(registered.size()));
+                    data.removeListener(key);
+                    reference.remove(key);
+                }
+
+                if (op % 97 == 0) assertMatches(reference, data);
+            }
+
+            assertMatches(reference, data);
+        }
+    }
+
+    @Test
+    void compactionKeepsRegistrationOrder() {
+        ChunkedEventPhaseData<String> data = new ChunkedEventPhaseData<>(String.class);
+        Map<Object, String> reference = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            data.addListener(i, "v" + i);
+            reference.put(i, "v" + i);
+        }
+
+        // removing three quarters of the listeners leaves more holes than slots in use, which compacts them
+        for (int i = 0; i < 1000; i++) {
+            if (i % 4 != 0) {
+                data.removeListener(i);
+                reference.remove(i);
+            }
+        }
+        assertMatches(reference, data);
+
+        for (int i = 1000; i < 1100; i++) {
+            data.addListener(i, "v" + i);
+            reference.put(i, "v" + i);
+        }
+        assertMatches(reference, data);
+    }
+
+    @Test
+    void duplicateKeysAreRejected() {
+        ChunkedEventPhaseData<String> data = new ChunkedEventPhaseData<>(String.class);
+        data.addListener("a", "A");
+
+        assertThrows(IllegalArgumentException.class, () -> data.addListener("a", "B"));
+        assertArrayEquals(new String[]{"A"}, data.getCallbacks());
+        assertThrows(IllegalArgumentException.class, () -> data.removeListener("b"));
+    }
+
+    @Test
+    void collidingKeysAreNotDuplicates() {
+        ChunkedEventPhaseData<String> data = new ChunkedEventPhaseData<>(String.class);
+        for (int i = 0; i < 100; i++) {
+            data.addListener(new CollidingKey("k" + i), "v" + i);
+        }
+
+        assertEquals(100, data.getCallbacks().length);
+        data.removeListener(new CollidingKey("k50"));
+        assertFalse(data.containsKey(new CollidingKey("k50")));
+        assertTrue(data.containsKey(new CollidingKey("k51")));
+        assertEquals(99, data.getCallbacks().length);
+    }
+
+    @Test
+    void batchFailurePartwayKeepsEarlierListeners() {
+        ChunkedEventPhaseData<String> data = new ChunkedEventPhaseData<>(String.class);
+        data.addListener("a", "A");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> data.addListeners(new Object[]{"b", "c", "a", "d"}, new String[]{"B", "C", "A2", "D"}));
+
+        // everything before the duplicate was added, and nothing after it
+        Map<Object, String> reference = new LinkedHashMap<>();
+        reference.put("a", "A");
+        reference.put("b", "B");
+        reference.put("c", "C");
+        assertMatches(reference, data);
+        assertFalse(data.containsKey("d"));
+    }
+
+    @Test
+    void callbacksArrayIsOnlyReplacedOnChange() {
+        ChunkedEventPhaseData<String> data = new ChunkedEventPhaseData<>(String.class);
+        data.addListener("a", "A");
+        data.addListener("b", "B");
+
+        String[] callbacks = data.getCallbacks();
+        assertSame(callbacks, data.getCallbacks());
+
+        data.removeListener("a");
+        String[] newCallbacks = data.getCallbacks();
+        assertNotSame(callbacks, newCallbacks);
+        // arrays already handed out are never modified
+        assertArrayEquals(new String[]{"A", "B"}, callbacks);
+        assertArrayEquals(new String[]{"B"}, newCallbacks);
+    }
+
+    private static void assertMatches(Map<Object, String> reference, ChunkedEventPhaseData<String> data) {
+        assertArrayEquals(reference.values().toArray(new String[0]), data.getCallbacks());
+
+        List<Object> keys = new ArrayList<>();
+        data.forEachKey(keys::add);
+        assertEquals(new ArrayList<>(reference.keySet()), keys);
+
+        for (Object key : reference.keySet()) {
+            assertTrue(data.containsKey(key), "Missing key " + key);
+        }
+    }
+}
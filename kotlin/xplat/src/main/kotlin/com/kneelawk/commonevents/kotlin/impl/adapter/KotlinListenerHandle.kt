@@ -18,6 +18,7 @@ package com.kneelawk.commonevents.kotlin.impl.adapter
 
 import com.kneelawk.commonevents.api.EventKey
 import com.kneelawk.commonevents.api.adapter.ListenerHandle
+import com.kneelawk.commonevents.api.adapter.StaticListenerTarget
 import com.kneelawk.commonevents.api.adapter.util.AdapterUtils
 import com.kneelawk.commonevents.impl.CELog
 import net.minecraft.resources.ResourceLocation
@@ -72,6 +73,9 @@ class KotlinListenerHandle(
         }
     }
 
+    override fun getStaticTarget(): StaticListenerTarget? =
+        if (static) StaticListenerTarget(listenerClass, methodName, methodDescriptor) else null
+
     override fun toString(): String {
         val staticStr = if (static) "static " else ""
         return """KotlinListenerHandle{$key($phase) -> $staticStr${listenerClass.internalName}.$methodName$methodDescriptor}"""
@@ -71,3 +71,5 @@ add(neoforge, ":example-neoforge", "example/neoforge")
 add(xplat, ":example-kotlin-xplat", "example-kotlin/xplat")
 add(fabric, ":example-kotlin-fabric", "example-kotlin/fabric")
 add(neoforge, ":example-kotlin-neoforge", "example-kotlin/neoforge")
+
+add(xplat, ":benchmarks-xplat", "benchmarks/xplat")